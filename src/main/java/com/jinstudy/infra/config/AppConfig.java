@@ -1,21 +1,46 @@
 package com.jinstudy.infra.config;
 
+import com.jinstudy.infra.security.BoundedPasswordEncoder;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.NameTokenizers;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+
+import javax.sql.DataSource;
+import java.util.Map;
 
 @Configuration
 public class AppConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder(){
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder(); // 스프링 시큐리티 디폴트 PasswordEncoder 리턴
+    public PasswordEncoder passwordEncoder(AppProperties appProperties){
+        AppProperties.Password password = appProperties.getPassword();
+        // 새 비밀번호는 설정한 strength 의 bcrypt 로 인코딩하고, 다른 방식({noop}, {sha256} ...)으로 저장된 비밀번호는 스프링 시큐리티 디폴트로 비교한다.
+        // 저장된 비밀번호가 다른 방식이거나 strength 가 다르면 로그인에 성공했을 때 새로 인코딩해서 저장한다. (AccountService.updatePassword(UserDetails, String))
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(password.getBcryptStrength())));
+        encoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return new BoundedPasswordEncoder(encoder, password.getHashingThreads(), password.getHashingQueueCapacity());
         // PasswordEncoder 클래스를 빈으로 등록
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "app.remember-me.token-store", havingValue = "jdbc")
+    public PersistentTokenRepository jdbcTokenRepository(DataSource dataSource){
+        // 애플리케이션을 여러 대로 띄울 때. 자동 로그인할 때마다 바로 DB 를 읽고 쓰기 때문에 어느 서버로 요청이 가도 최신 토큰을 본다.
+        // 한 대로 띄울 때는 CachingPersistentTokenRepository 를 쓴다.
+        JdbcTokenRepositoryImpl jdbcTokenRepository = new JdbcTokenRepositoryImpl();
+        jdbcTokenRepository.setDataSource(dataSource);
+        return jdbcTokenRepository;
+    }
+
     @Bean
     public ModelMapper modelMapper(){
         ModelMapper modelMapper = new ModelMapper();
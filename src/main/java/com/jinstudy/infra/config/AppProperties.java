@@ -1,9 +1,16 @@
 package com.jinstudy.infra.config;
 
+import com.jinstudy.infra.executor.RejectionPolicy;
+import com.jinstudy.infra.security.RememberMeTokenStore;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 @Data
 @Component
 @ConfigurationProperties("app")
@@ -11,4 +18,156 @@ public class AppProperties {
 
     private String host; // application.properties 의 app.host 와 바인딩
 
+    private final Cache cache = new Cache(); // app.cache.* 와 바인딩
+
+    private final Image image = new Image(); // app.image.* 와 바인딩
+
+    private final Zone zone = new Zone(); // app.zone.* 와 바인딩
+
+    private final Password password = new Password(); // app.password.* 와 바인딩
+
+    private final RememberMe rememberMe = new RememberMe(); // app.remember-me.* 와 바인딩
+
+    private final Mail mail = new Mail(); // app.mail.* 와 바인딩
+
+    private final Outbox outbox = new Outbox(); // app.outbox.* 와 바인딩
+
+    private final Executor executor = new Executor(); // app.executor.* 와 바인딩
+
+    @Data
+    public static class Cache {
+
+        private long studyMaximumSize = 1000;
+
+        private Duration studyExpireAfterWrite = Duration.ofMinutes(10);
+
+        private long feedMaximumSize = 10000; // 사용자별 홈 화면 추천 스터디 목록
+
+        private Duration feedExpireAfterWrite = Duration.ofMinutes(10);
+
+        private long tagMaximumSize = 10000; // 태그 이름 -> id
+
+        private long credentialsMaximumSize = 10000; // 로그인할 때 입력한 이메일 또는 닉네임 -> 로그인 정보
+
+        private Duration credentialsExpireAfterWrite = Duration.ofMinutes(1);
+
+        private long rememberMeMaximumSize = 10000; // remember-me series -> 토큰
+
+        private Duration rememberMeExpireAfterAccess = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Image {
+
+        private Path location; // 이미지 파일을 저장할 디렉토리. 재시작해도 지워지지 않는 경로를 직접 지정해야 한다.
+
+        private boolean migrateInlineImages; // true 이면 애플리케이션 시작 시 DB에 data URL 로 저장된 이미지를 파일로 옮긴다.
+    }
+
+    @Data
+    public static class Zone {
+
+        private String importLocation = "classpath:zonelist_kr.csv"; // 애플리케이션이 뜰 때 넣을 지역 CSV. 큰 파일은 file:/경로/zones.csv
+
+        private boolean importAsync = true; // false 이면 애플리케이션이 뜨는 중에(ApplicationRunner) 지역을 다 넣고 나서 시작을 마친다.
+
+        private boolean forceImport; // true 이면 zone 테이블에 이미 지역이 있어도 다시 넣는다. (새 지역 추가, 한글 이름 변경)
+    }
+
+    @Data
+    public static class Password {
+
+        private int bcryptStrength = 10; // bcrypt work factor. 1 올릴 때마다 해싱 시간이 2배가 된다.
+
+        private int hashingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2); // 해싱에 쓰는 스레드(CPU) 수
+
+        private int hashingQueueCapacity = 100; // 해싱을 기다리는 요청이 이 보다 많으면 잠시 후 다시 시도하라고 응답한다.
+    }
+
+    @Data
+    public static class RememberMe {
+
+        private RememberMeTokenStore tokenStore = RememberMeTokenStore.CACHING; // 애플리케이션을 여러 대로 띄우면 JDBC
+
+        private Duration tokenValidity = Duration.ofDays(14); // 이 기간 동안 쓰지 않은 remember-me 쿠키는 만료된다.
+
+        private Duration flushInterval = Duration.ofSeconds(10); // 자동 로그인으로 바뀐 토큰을 이 주기로 모아서 DB에 쓴다. (CACHING 일 때만)
+
+        private String purgeCron = "0 30 4 * * *"; // 만료된 토큰을 지우는 주기
+    }
+
+    @Data
+    public static class Mail {
+
+        private Duration pollInterval = Duration.ofSeconds(5); // 다시 보낼 메일이 있는지 확인하는 주기
+
+        private int maxAttempts = 5; // 이 만큼 실패하면 더 보내지 않고 DEAD 로 남긴다.
+
+        private Duration initialBackoff = Duration.ofSeconds(30); // 처음 실패한 뒤에 기다릴 시간. 실패할 때마다 두 배
+
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        private Duration sendTimeout = Duration.ofMinutes(5); // 보내기 시작한 뒤 이 시간이 지나도 결과가 없으면 다시 보낸다.
+
+        private int batchSize = 50; // 한 번에(SMTP 연결 하나로) 보내는 메일 수
+
+        private int smtpPoolSize = 2; // 열어두고 다시 쓰는 SMTP 연결 수
+
+        private double maxMessagesPerSecond = 10; // 초당 보내는 메일 수 상한. 0 이면 제한하지 않는다.
+    }
+
+    @Data
+    public static class Outbox {
+
+        private Duration pollInterval = Duration.ofSeconds(5); // 다시 전달할 이벤트가 있는지 확인하는 주기
+
+        private int batchSize = 100; // 한 번에 꺼내서 전달하는 이벤트 수
+
+        private int maxAttempts = 10; // 이 만큼 실패하면 더 전달하지 않고 DEAD 로 남긴다.
+
+        private Duration initialBackoff = Duration.ofSeconds(10); // 처음 실패한 뒤에 기다릴 시간. 실패할 때마다 두 배
+
+        private Duration maxBackoff = Duration.ofMinutes(30);
+
+        private Duration processingTimeout = Duration.ofMinutes(5); // 이 시간이 지나도 결과가 없으면 다시 전달한다. 이벤트 하나를 처리하는 시간보다 길어야 한다.
+
+        private Duration retention = Duration.ofDays(7); // 처리한 이벤트를 남겨두는 기간
+
+        private String purgeCron = "0 0 5 * * *"; // 처리한 지 retention 이 지난 이벤트를 지우는 주기
+    }
+
+    // 일의 종류마다 따로 쓰는 스레드 풀 (WorkloadExecutors)
+    @Data
+    public static class Executor {
+
+        private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+        // @Async 메서드 (지역 데이터 불러오기)
+        private final Pool async = new Pool(PROCESSORS, PROCESSORS * 2, 50, RejectionPolicy.CALLER_RUNS);
+
+        // 메일 보내기. 스레드마다 SMTP 연결을 하나씩 쓴다. (app.mail.smtp-pool-size)
+        private final Pool mail = new Pool(2, 2, 100, RejectionPolicy.DEFER);
+
+        // outbox 이벤트 전달 (새 스터디 알림). 발행한 순서대로 전달하도록 스레드 하나로
+        private final Pool outbox = new Pool(1, 1, 10, RejectionPolicy.DEFER);
+    }
+
+    @Data
+    @NoArgsConstructor @AllArgsConstructor
+    public static class Pool {
+
+        private int coreSize;
+
+        private int maxSize; // 대기 큐가 가득 차면 이 만큼까지 스레드를 늘린다.
+
+        private int queueCapacity;
+
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS; // 스레드와 대기 큐가 모두 찼을 때
+
+        private Duration keepAlive = Duration.ofSeconds(60); // core-size 를 넘는 스레드가 일 없이 이 만큼 지나면 없앤다.
+
+        public Pool(int coreSize, int maxSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+            this(coreSize, maxSize, queueCapacity, rejectionPolicy, Duration.ofSeconds(60));
+        }
+    }
 }
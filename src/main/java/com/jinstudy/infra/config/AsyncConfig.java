@@ -1,29 +1,43 @@
 package com.jinstudy.infra.config;
 
+import com.jinstudy.infra.executor.WorkloadExecutors;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.ThreadPoolExecutor;
 
+// @Async 메서드는 app.executor.async 풀에서 실행한다. 메일, outbox 이벤트는 각자의 풀(WorkloadExecutors)을 쓴다.
+// 예전에는 대기 큐(50)가 가득 차면 TaskRejectedException 이 @Async 메서드를 부른 요청으로 던져졌다. 지금은 부른 스레드가 직접 실행한다. (CALLER_RUNS)
 @Slf4j
 @Configuration
 @EnableAsync
-public class AsyncConfig implements AsyncConfigurer {
+@RequiredArgsConstructor
+public class AsyncConfig implements AsyncConfigurer, DisposableBean {
+
+    private final WorkloadExecutors workloadExecutors;
+    private final AppProperties appProperties;
+
+    private ThreadPoolTaskExecutor executor;
+
     @Override
-    public Executor getAsyncExecutor() { // Async Executor를 설정할 수 있다.
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        int processors = Runtime.getRuntime().availableProcessors();
-        executor.setCorePoolSize(processors);
-        log.info("processors count {}", processors);
-        executor.setMaxPoolSize(processors * 2);
-        executor.setQueueCapacity(50);
-        executor.setKeepAliveSeconds(60);
-        executor.setThreadNamePrefix("AsyncExecutor-");
-        executor.initialize();
+    public synchronized Executor getAsyncExecutor() { // Async Executor를 설정할 수 있다.
+        if(executor == null){
+            AppProperties.Pool pool = appProperties.getExecutor().getAsync();
+            log.info("async executor core {}, max {}, queue {}, {}", pool.getCoreSize(), pool.getMaxSize(), pool.getQueueCapacity(), pool.getRejectionPolicy());
+            executor = workloadExecutors.create("async", pool);
+        }
         return executor;
     }
-}
\ No newline at end of file
+
+    @Override
+    public synchronized void destroy() {
+        if(executor != null){
+            executor.shutdown();
+        }
+    }
+}
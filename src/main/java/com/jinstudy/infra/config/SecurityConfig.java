@@ -1,9 +1,9 @@
 package com.jinstudy.infra.config;
 
 
+import com.jinstudy.infra.security.PasswordHashingBusyFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -11,11 +11,9 @@ import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
 
-import javax.sql.DataSource;
-
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
@@ -24,14 +22,15 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     //private final AccountService accountService;
     // Infra 패키지에서는 modules 패키지를 가급적이면 참조하지 않게 하기 위해서
     private final UserDetailsService userDetailsService;
-    private final DataSource dataSource;
+    private final PersistentTokenRepository tokenRepository; // app.remember-me.token-store 에 따라 CachingPersistentTokenRepository 또는 JdbcTokenRepositoryImpl
+    private final AppProperties appProperties;
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http.authorizeRequests()
                 .mvcMatchers("/","/login","/sign-up","/check-email-token",
                         "/email-login","/check-email-login","/login-link","/login-by-email").permitAll()
-                .mvcMatchers(HttpMethod.GET, "/profile/*").permitAll()
+                .mvcMatchers(HttpMethod.GET, "/profile/*", "/image/*", "/search/study").permitAll()
                 .anyRequest().authenticated();
         // 인증을 허가할 요청을 결정하고, 특정 요청 메서드에 대해서만 허가를 할 수도 있고,
         // 나머지 요청들을 모두 인증을 통해서 접근이 가능하다.
@@ -39,22 +38,16 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
         http.formLogin().loginPage("/login").permitAll();
         // form을 통한 로그인을 활성화 하고, 커스텀 로그인 페이지를 띄워줄 핸들러의 url을 지정한다.
+        http.addFilterBefore(new PasswordHashingBusyFilter(), UsernamePasswordAuthenticationFilter.class); // 로그인이 몰릴 때 -> /login?busy
 
         http.logout().logoutSuccessUrl("/");
 
         http.rememberMe()
                 .userDetailsService(userDetailsService)
-                .tokenRepository(tokenRepository());
-    }
-
-    @Bean
-    public PersistentTokenRepository tokenRepository(){ // username, rnadom token, series 를 조합한 토큰 값을 DB에 저장하기 위해서
-        JdbcTokenRepositoryImpl jdbcTokenRepository = new JdbcTokenRepositoryImpl();
-        jdbcTokenRepository.setDataSource(dataSource);
-        return jdbcTokenRepository;
-        // jpa를 사용하기 때문에 jdbc의 table 스키마에 해당하는 엔티티가 존재해야한다.
+                .tokenRepository(tokenRepository) // username, rnadom token, series 를 조합한 토큰 값을 DB에 저장하기 위해서
+                .tokenValiditySeconds((int) appProperties.getRememberMe().getTokenValidity().getSeconds());
+        // jpa를 사용하기 때문에 jdbc의 table 스키마에 해당하는 엔티티(PersistentLogins)가 존재해야한다.
         // JdbcTokenRepositoryImpl 클래스를 보면 테이블을 생성하는 메서드에서 테이블의 구성을 알 수 있다.
-        // 그것을 바탕으로 엔티티 생성.
     }
 
     @Override
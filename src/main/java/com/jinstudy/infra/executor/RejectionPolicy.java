@@ -0,0 +1,7 @@
+package com.jinstudy.infra.executor;
+
+// 풀의 스레드가 모두 일하고 대기 큐도 가득 찼을 때 새 작업을 어떻게 할지
+public enum RejectionPolicy {
+    CALLER_RUNS, // 작업을 넘긴 스레드가 직접 실행한다. 넘긴 쪽이 느려지면서 작업을 덜 넘기게 된다. (작업을 잃어버리지 않는다)
+    DEFER // 실행하지 않고 TaskRejectedException 을 던진다. 작업이 이미 DB 큐(outbound_mail, outbox_event)에 있어서 다음 poll 때 다시 꺼내는 풀에만 쓴다.
+}
@@ -0,0 +1,75 @@
+package com.jinstudy.infra.executor;
+
+import com.jinstudy.infra.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// 일의 종류(async, mail, outbox)마다 따로 쓰는 스레드 풀을 만든다. 한 종류의 일이 몰려도 다른 일의 스레드와 대기 큐를 차지하지 않는다.
+// - 크기와 대기 큐, 꽉 찼을 때의 처리(RejectionPolicy)는 app.executor.<이름>.* 로 정한다.
+// - 지표 (name=풀 이름): executor.active, executor.queued, executor.pool.size, executor.completed (ExecutorServiceMetrics),
+//   executor.rejected (policy) - 꽉 차서 거절하거나 넘긴 스레드가 실행한 작업 수, executor.idle - 대기 큐에서 기다린 시간, executor - 실행 시간
+@Component
+@RequiredArgsConstructor
+public class WorkloadExecutors {
+
+    private final MeterRegistry meterRegistry;
+
+    // 초기화한 풀을 돌려준다. 종료(shutdown)는 만든 쪽에서 한다.
+    public ThreadPoolTaskExecutor create(String name, AppProperties.Pool pool) {
+        Tags tags = Tags.of("name", name);
+        Timer idle = Timer.builder("executor.idle").tags(tags).register(meterRegistry);
+        Timer execution = Timer.builder("executor").tags(tags).register(meterRegistry);
+        Counter rejected = Counter.builder("executor.rejected").tags(tags).tag("policy", pool.getRejectionPolicy().name().toLowerCase())
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(Math.max(pool.getCoreSize(), pool.getMaxSize()));
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+        executor.setThreadNamePrefix(name + "-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.setRejectedExecutionHandler(rejectionHandler(pool.getRejectionPolicy(), name, rejected));
+        executor.setTaskDecorator(task -> {
+            long queuedAt = System.nanoTime();
+            return () -> {
+                long start = System.nanoTime();
+                idle.record(start - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    execution.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), name, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(RejectionPolicy policy, String name, Counter rejected) {
+        if(policy == RejectionPolicy.CALLER_RUNS){
+            RejectedExecutionHandler callerRuns = new ThreadPoolExecutor.CallerRunsPolicy(); // 종료 중이면 실행하지 않고 버린다.
+            return (task, executor) -> {
+                rejected.increment();
+                callerRuns.rejectedExecution(task, executor);
+            };
+        }
+        return (task, executor) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("executor " + name + " is saturated or shutting down"); // ThreadPoolTaskExecutor 가 TaskRejectedException 으로 바꾼다.
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.jinstudy.infra.image;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Controller
+@RequiredArgsConstructor
+public class ImageController {
+
+    private final ImageStore imageStore;
+
+    @GetMapping(ImageStore.URL_PREFIX + "{key:.+}")
+    public ResponseEntity<Resource> image(@PathVariable String key){
+        Optional<Path> image = imageStore.find(key);
+        if(image.isEmpty()){
+            return ResponseEntity.notFound().build();
+        }
+
+        // 키가 곧 이미지 내용의 해시값이라서 같은 키의 내용은 절대 바뀌지 않는다. -> 키를 ETag 로 쓰고, 브라우저가 오래 캐싱하게 한다.
+        // If-None-Match 헤더가 ETag 와 같으면 스프링(HttpEntityMethodProcessor)이 본문 없이 304 로 응답한다.
+        Resource resource = new FileSystemResource(image.get()); // 파일 전체를 메모리에 올리지 않고 스트리밍으로 응답
+        return ResponseEntity.ok()
+                .eTag(key)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic())
+                .contentType(MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .body(resource);
+    }
+}
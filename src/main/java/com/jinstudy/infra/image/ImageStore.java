@@ -0,0 +1,113 @@
+package com.jinstudy.infra.image;
+
+import com.jinstudy.infra.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// 프로필 이미지, 스터디 배너 이미지를 DB(@Lob)가 아닌 로컬 파일 시스템에 저장한다.
+// 파일 이름은 이미지 내용의 SHA-256 해시값이기 때문에 같은 이미지는 한 번만 저장되고, 한 번 저장된 파일은 바뀌지 않는다.
+// 엔티티에는 이미지를 내려주는 URL(/image/{key})만 저장한다.
+@Slf4j
+@Component
+public class ImageStore {
+
+    public static final String URL_PREFIX = "/image/";
+
+    static final Pattern KEY_PATTERN = Pattern.compile("^[0-9a-f]{64}\\.(png|jpg|gif|webp)$");
+
+    private static final Pattern DATA_URL_PATTERN = Pattern.compile("^data:(image/[a-z]+);base64,(.+)$", Pattern.DOTALL);
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/png", "png",
+            "image/jpeg", "jpg",
+            "image/gif", "gif",
+            "image/webp", "webp");
+
+    private final Path location;
+
+    public ImageStore(AppProperties appProperties) {
+        this.location = appProperties.getImage().getLocation();
+        if(location == null){
+            // 임시 디렉토리는 재부팅이나 재배포때 지워질 수 있어서 기본값을 두지 않는다. 이미지를 저장하거나 읽을 때 실패한다.
+            log.warn("app.image.location is not set, images can not be stored");
+        }
+    }
+
+    public static boolean isDataUrl(String image) {
+        return image != null && image.startsWith("data:");
+    }
+
+    // 폼으로 넘어온 이미지 값을 엔티티에 저장할 값으로 바꿔준다.
+    // data URL 이면 파일로 저장하고 URL을, 이미 저장된 이미지의 URL 이면 그대로, 비어있으면 null 을 리턴한다.
+    public String store(String image) {
+        if(image == null || image.isBlank()){
+            return null;
+        }
+        if(image.startsWith(URL_PREFIX) && KEY_PATTERN.matcher(image.substring(URL_PREFIX.length())).matches()){
+            return image;
+        }
+
+        var matcher = DATA_URL_PATTERN.matcher(image);
+        if(!matcher.matches() || !EXTENSIONS.containsKey(matcher.group(1))){
+            throw new IllegalArgumentException("지원하지 않는 이미지 형식입니다.");
+        }
+        byte[] bytes = Base64.getDecoder().decode(matcher.group(2).trim());
+        return URL_PREFIX + write(bytes, EXTENSIONS.get(matcher.group(1)));
+    }
+
+    public Optional<Path> find(String key) {
+        if(!KEY_PATTERN.matcher(key).matches()){ // ../ 같은 경로 조작을 막기 위해서 키 형식을 검사
+            return Optional.empty();
+        }
+        Path path = pathOf(key);
+        return Files.exists(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    private String write(byte[] bytes, String extension) {
+        String key = sha256(bytes) + "." + extension;
+        Path target = pathOf(key);
+        if(Files.exists(target)){ // 같은 내용의 이미지는 이미 저장되어 있다.
+            return key;
+        }
+
+        try {
+            Files.createDirectories(target.getParent());
+            // 임시 파일에 먼저 쓰고 옮겨야 다른 요청이 반쯤 쓰여진 파일을 읽지 않는다.
+            Path temp = Files.createTempFile(target.getParent(), key, ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("failed to store image", e);
+            throw new UncheckedIOException(e);
+        }
+        return key;
+    }
+
+    private Path pathOf(String key) {
+        if(location == null){
+            throw new IllegalStateException("app.image.location 을 설정해야 이미지를 저장할 수 있습니다.");
+        }
+        return location.resolve(key.substring(0, 2)).resolve(key); // 한 디렉토리에 파일이 너무 많아지지 않도록 해시 앞 두 글자로 나눈다.
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return String.format("%064x", new BigInteger(1, MessageDigest.getInstance("SHA-256").digest(bytes)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
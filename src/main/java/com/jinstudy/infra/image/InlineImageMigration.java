@@ -0,0 +1,103 @@
+package com.jinstudy.infra.image;
+
+import com.jinstudy.infra.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+// 예전에 @Lob 컬럼에 data URL(base64) 로 저장했던 이미지를 ImageStore 로 옮기고, 컬럼에는 이미지 URL만 남기는 일회성 마이그레이션.
+// app.image.migrate-inline-images=true 로 한 번 실행하면 된다. 이미 옮긴 row 는 건너뛰기 때문에 여러 번 실행해도 괜찮다.
+// infra 패키지는 modules 패키지를 참조하면 안되기 때문에 엔티티 대신 테이블/컬럼 이름으로 직접 접근한다.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.image.migrate-inline-images", havingValue = "true")
+public class InlineImageMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImageStore imageStore;
+
+    public InlineImageMigration(JdbcTemplate jdbcTemplate, ImageStore imageStore, AppProperties appProperties) {
+        // 저장 위치 없이 돌리면 DB 에서 이미지를 지운 뒤에 파일이 사라질 수 있으므로 애플리케이션을 띄우지 않는다.
+        Path location = appProperties.getImage().getLocation();
+        if(location == null){
+            throw new IllegalStateException("app.image.migrate-inline-images=true 이면 app.image.location 에 영구 저장소 경로를 지정해야 합니다.");
+        }
+        if(location.toAbsolutePath().normalize().startsWith(Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize())){
+            throw new IllegalStateException("app.image.location 이 임시 디렉토리입니다. 마이그레이션은 영구 저장소 경로에서만 실행할 수 있습니다: " + location);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.imageStore = imageStore;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean postgres = isPostgres();
+        migrate("account", "profile_image", postgres);
+        migrate("study", "image", postgres);
+    }
+
+    private void migrate(String table, String column, boolean postgres) {
+        long lastId = 0;
+        int migrated = 0;
+        int skipped = 0;
+        while(true){
+            // 이미지 전체를 한 번에 메모리에 올리지 않도록 id 순서로 조금씩 읽어온다.
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "select id, " + column + " as image from " + table +
+                    " where id > ? and " + column + " is not null order by id limit " + BATCH_SIZE, lastId);
+            if(rows.isEmpty()){
+                break;
+            }
+
+            for(Map<String, Object> row : rows){
+                lastId = ((Number) row.get("id")).longValue();
+                String value = (String) row.get("image");
+                String largeObjectId = null;
+                if(postgres && value.matches("^\\d+$")){
+                    // PostgreSQL 에서 @Lob String 은 text 컬럼에 large object 의 OID 만 저장된다.
+                    largeObjectId = value;
+                    value = jdbcTemplate.queryForObject("select convert_from(lo_get(cast(? as oid)), 'UTF8')", String.class, Long.parseLong(value));
+                }
+                if(!ImageStore.isDataUrl(value)){
+                    continue;
+                }
+
+                String url;
+                try {
+                    url = imageStore.store(value);
+                } catch (IllegalArgumentException e) {
+                    // 형식이 잘못된 이미지 하나 때문에 나머지 row 가 옮겨지지 않으면 안되므로 기록만 하고 넘어간다.
+                    log.warn("skipped invalid inline image {}.{} id={}: {}", table, column, lastId, e.getMessage());
+                    skipped++;
+                    continue;
+                }
+                jdbcTemplate.update("update " + table + " set " + column + " = ? where id = ?", url, lastId);
+                if(largeObjectId != null){
+                    jdbcTemplate.queryForObject("select lo_unlink(cast(? as oid))", Integer.class, Long.parseLong(largeObjectId));
+                }
+                migrated++;
+            }
+        }
+        log.info("migrated {} inline images from {}.{}, skipped {}", migrated, table, column, skipped);
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), "getDatabaseProductName");
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.jinstudy.infra.jpa;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import javax.persistence.EntityManagerFactory;
+
+// JPA 를 거치지 않고 JDBC batch 로 엔티티 row 를 넣을 때, JPA 와 같은 시퀀스에서 id 를 받기 위한 SQL 식을 만든다.
+// insert ... select <식>, ? ... 처럼 insert 문 안에 넣으면 row 마다 시퀀스를 따로 조회하지 않아도 된다.
+public final class IdSequences {
+
+    private IdSequences() {
+    }
+
+    // H2: next value for hibernate_sequence, PostgreSQL: nextval ('hibernate_sequence')
+    public static String nextValueExpression(EntityManagerFactory entityManagerFactory, Class<?> entityType) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator generator = sessionFactory.getMetamodel().entityPersister(entityType).getIdentifierGenerator();
+        if(!(generator instanceof SequenceStyleGenerator)){
+            throw new IllegalStateException(entityType.getSimpleName() + " 의 id 는 시퀀스로 만들어야 합니다. " + generator);
+        }
+        SequenceStyleGenerator sequence = (SequenceStyleGenerator) generator;
+        // JPA 가 시퀀스 값을 한 번에 여러 개 가져다 쓰는(pooled) 경우에 직접 읽으면 id 가 겹칠 수 있다.
+        if(!sequence.getDatabaseStructure().isPhysicalSequence() || sequence.getOptimizer().getIncrementSize() != 1){
+            throw new IllegalStateException(entityType.getSimpleName() + " 의 id 시퀀스는 increment 가 1 이어야 합니다.");
+        }
+        return sessionFactory.getJdbcServices().getDialect().getSelectSequenceNextValString(sequence.getDatabaseStructure().getName());
+    }
+}
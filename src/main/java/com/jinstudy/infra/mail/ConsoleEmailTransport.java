@@ -7,10 +7,10 @@ import org.springframework.stereotype.Component;
 @Slf4j
 @Profile("local")
 @Component
-public class ConsoleEmailService implements EmailService{
+public class ConsoleEmailTransport implements EmailTransport {
 
     @Override
-    public void sendEmail(EmailMessage emailMessage) {
+    public void send(EmailMessage emailMessage) {
         log.info("sent email: {}", emailMessage.getMessage());
     }
 }
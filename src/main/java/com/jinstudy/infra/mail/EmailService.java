@@ -1,5 +1,9 @@
 package com.jinstudy.infra.mail;
 
+import java.util.List;
+
 public interface EmailService { // 이메일 전송 기능을 추상화 할 인터페이스
-    void sendEmail(EmailMessage emailMessage);
+    void sendEmail(EmailMessage emailMessage); // 호출한 트랜잭션에서 메일 큐에 넣고, 커밋된 뒤에 보낸다. (QueuedEmailService)
+
+    void sendEmails(List<EmailMessage> emailMessages); // 알림처럼 여러 통을 한 번에 큐에 넣는다.
 }
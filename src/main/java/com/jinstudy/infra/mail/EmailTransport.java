@@ -0,0 +1,26 @@
+package com.jinstudy.infra.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 메일을 실제로 보내는 방법. (local: 콘솔 로그, dev: SMTP)
+// 다른 패키지에서는 EmailService 로 메일 큐에 넣기만 하고, MailQueueWorker 가 큐에서 꺼내서 이걸로 보낸다.
+public interface EmailTransport {
+
+    void send(EmailMessage emailMessage); // 보내지 못하면 RuntimeException -> 나중에 다시 보낸다.
+
+    // 여러 메일을 한 번에 보내고, 메일마다 실패 원인(보냈으면 null)을 같은 순서로 돌려준다.
+    // 연결 비용이 큰 방법(SMTP)은 연결 하나로 모두 보내도록 구현한다.
+    default List<RuntimeException> sendAll(List<EmailMessage> emailMessages) {
+        List<RuntimeException> failures = new ArrayList<>(emailMessages.size());
+        for(EmailMessage emailMessage : emailMessages){
+            try {
+                send(emailMessage);
+                failures.add(null);
+            } catch (RuntimeException e) {
+                failures.add(e);
+            }
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,163 @@
+package com.jinstudy.infra.mail;
+
+import com.jinstudy.infra.config.AppProperties;
+import com.jinstudy.infra.executor.WorkloadExecutors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// 메일 큐(outbound_mail)에서 보낼 차례가 된 메일을 꺼내서 전용 스레드 풀(app.executor.mail)에서 보낸다.
+// - 메일을 넣은 트랜잭션이 커밋되면 바로(wakeUp), 그 밖에는 poll-interval 마다 큐를 확인한다. (재시도, 애플리케이션이 죽어서 못 보낸 메일)
+// - 실패하면 initial-backoff * 2^(시도 횟수 - 1) 뒤에 (최대 max-backoff) 다시 보내고, max-attempts 번 실패하면 DEAD 로 남긴다.
+// - 보내는 동안에는 DB 커넥션을 잡고 있지 않는다. (꺼낼 때, 결과를 기록할 때만 짧게 쓴다)
+// - 보내고 나서 결과를 기록하기 전에 죽으면 send-timeout 뒤에 한 번 더 보낸다. (최소 한 번 전송)
+// - 꺼낸 메일은 batch-size 개씩 묶어서 보낸다. (SMTP 는 연결 하나로 모두 보낸다. PooledSmtpEmailTransport)
+// - 지표: mail.delivery (result=sent|retry|dead), mail.batch (묶음마다 걸린 시간), mail.batch.size, mail.queue.depth (status=pending|sending|dead)
+@Slf4j
+@Component
+public class MailQueueWorker implements DisposableBean {
+
+    private static final List<OutboundMailStatus> DUE_STATUSES = List.of(OutboundMailStatus.PENDING, OutboundMailStatus.SENDING);
+    private static final int ERROR_MAX_LENGTH = 1000;
+
+    private final OutboundMailRepository outboundMailRepository;
+    private final EmailTransport emailTransport;
+    private final AppProperties.Mail properties;
+    private final ThreadPoolTaskExecutor executor;
+    private final AtomicInteger inFlight = new AtomicInteger(); // 꺼내서 보내는 중이거나 풀에서 기다리는 메일 수
+    private final Map<OutboundMailStatus, AtomicLong> depth = new EnumMap<>(OutboundMailStatus.class);
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    public MailQueueWorker(OutboundMailRepository outboundMailRepository, EmailTransport emailTransport,
+                           AppProperties appProperties, WorkloadExecutors workloadExecutors, MeterRegistry meterRegistry) {
+        this.outboundMailRepository = outboundMailRepository;
+        this.emailTransport = emailTransport;
+        this.properties = appProperties.getMail();
+
+        this.executor = workloadExecutors.create("mail", appProperties.getExecutor().getMail());
+
+        this.sent = Counter.builder("mail.delivery").tag("result", "sent").register(meterRegistry);
+        this.retried = Counter.builder("mail.delivery").tag("result", "retry").register(meterRegistry);
+        this.dead = Counter.builder("mail.delivery").tag("result", "dead").register(meterRegistry);
+        this.batchTimer = Timer.builder("mail.batch").register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("mail.batch.size").register(meterRegistry);
+        for(OutboundMailStatus status : List.of(OutboundMailStatus.PENDING, OutboundMailStatus.SENDING, OutboundMailStatus.DEAD)){
+            depth.put(status, meterRegistry.gauge("mail.queue.depth", Tags.of("status", status.name().toLowerCase()), new AtomicLong()));
+        }
+    }
+
+    // 메일을 넣은 트랜잭션이 커밋된 뒤에 호출된다. 요청 스레드는 기다리지 않는다.
+    public void wakeUp() {
+        try {
+            executor.execute(this::dispatchDueMails);
+        } catch (TaskRejectedException e) {
+            log.debug("mail worker is busy or shutting down, mails will be sent on next poll"); // 큐에 저장되어 있으니 다음에 보낸다.
+        }
+    }
+
+    // 보낼 차례가 된 메일을 풀에 여유가 있는 만큼 꺼내서 보낸다. 꺼낸 메일 수를 리턴한다.
+    @Scheduled(fixedDelayString = "#{@appProperties.mail.pollInterval.toMillis()}")
+    public synchronized int dispatchDueMails() {
+        // 스레드마다 두 묶음까지 꺼내둔다.
+        int capacity = executor.getMaxPoolSize() * properties.getBatchSize() * 2 - inFlight.get();
+        List<Long> claimed = new ArrayList<>();
+        if(capacity > 0){
+            LocalDateTime now = LocalDateTime.now();
+            for(Long id : outboundMailRepository.findDueIds(DUE_STATUSES, now, PageRequest.of(0, capacity))){
+                if(outboundMailRepository.claim(id, DUE_STATUSES, now, OutboundMailStatus.SENDING, now.plus(properties.getSendTimeout())) == 1){
+                    claimed.add(id);
+                } // 0 이면 다른 워커가 먼저 가져갔다.
+            }
+        }
+        if(!claimed.isEmpty()){
+            List<OutboundMail> mails = outboundMailRepository.findAllById(claimed);
+            for(int from = 0; from < mails.size(); from += properties.getBatchSize()){
+                submit(mails.subList(from, Math.min(from + properties.getBatchSize(), mails.size())));
+            }
+        }
+        depth.forEach((status, gauge) -> gauge.set(outboundMailRepository.countByStatus(status)));
+        return claimed.size();
+    }
+
+    private void submit(List<OutboundMail> batch) {
+        inFlight.addAndGet(batch.size());
+        try {
+            executor.execute(() -> deliver(batch));
+        } catch (TaskRejectedException e) {
+            inFlight.addAndGet(-batch.size()); // 풀이 가득 찼거나 종료 중. SENDING 으로 남은 메일은 send-timeout 뒤에 다시 보낸다.
+        }
+    }
+
+    void deliver(List<OutboundMail> batch) {
+        try {
+            List<EmailMessage> messages = batch.stream().map(OutboundMail::toEmailMessage).collect(Collectors.toList());
+            List<RuntimeException> failures;
+            try {
+                failures = batchTimer.recordCallable(() -> emailTransport.sendAll(messages));
+            } catch (Exception e) { // 한 통도 보내지 못했다.
+                failures = Collections.nCopies(batch.size(), e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e));
+            }
+            batchSize.record(batch.size());
+            for(int i = 0; i < batch.size(); i++){
+                record(batch.get(i), failures.get(i));
+            }
+        } finally {
+            inFlight.addAndGet(-batch.size());
+        }
+    }
+
+    private void record(OutboundMail mail, RuntimeException failure) {
+        if(failure == null){
+            outboundMailRepository.markSent(mail.getId(), OutboundMailStatus.SENT, LocalDateTime.now());
+            sent.increment();
+            return;
+        }
+        int attempts = mail.getAttempts() + 1;
+        String error = abbreviate(failure.toString());
+        if(attempts >= properties.getMaxAttempts()){
+            outboundMailRepository.markFailed(mail.getId(), OutboundMailStatus.DEAD, LocalDateTime.now(), error);
+            dead.increment();
+            log.error("failed to send mail {} to {} {} times, giving up", mail.getId(), mail.getRecipient(), attempts, failure);
+        } else {
+            Duration backoff = backoff(attempts);
+            outboundMailRepository.markFailed(mail.getId(), OutboundMailStatus.PENDING, LocalDateTime.now().plus(backoff), error);
+            retried.increment();
+            log.warn("failed to send mail {} to {} (attempt {}), retrying in {}", mail.getId(), mail.getRecipient(), attempts, backoff, failure);
+        }
+    }
+
+    // attempts 번 실패한 뒤에 기다릴 시간
+    Duration backoff(int attempts) {
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() > ERROR_MAX_LENGTH ? error.substring(0, ERROR_MAX_LENGTH) : error;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown(); // 보내는 중인 메일은 기다리고, 못 보낸 메일은 다음에 애플리케이션이 뜨면 보낸다.
+    }
+}
@@ -0,0 +1,33 @@
+package com.jinstudy.infra.mail;
+
+import java.util.concurrent.TimeUnit;
+
+// 초당 permitsPerSecond 통까지만 보내도록 메일 사이 간격을 고르게 맞춘다. 0 이하면 제한하지 않는다.
+// SMTP 서버(gmail 등)는 짧은 시간에 너무 많이 보내면 한동안 계정을 막는다.
+class MailRateLimiter {
+
+    private final long intervalNanos;
+    private long nextPermitAt = System.nanoTime();
+
+    MailRateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+    }
+
+    void acquire() throws InterruptedException {
+        if(intervalNanos == 0){
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if(nextPermitAt < now){
+                nextPermitAt = now; // 한동안 보내지 않았어도 한꺼번에 몰아서 보내지는 않는다.
+            }
+            waitNanos = nextPermitAt - now;
+            nextPermitAt += intervalNanos;
+        }
+        if(waitNanos > 0){
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
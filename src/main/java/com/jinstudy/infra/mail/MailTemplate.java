@@ -0,0 +1,72 @@
+package com.jinstudy.infra.mail;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.unbescape.html.HtmlEscape;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// 한 번 렌더링해서 받는 사람마다 바뀌는 부분(recipientVariables)만 빈칸으로 남겨둔 메일 본문. (MailTemplates 가 만든다)
+// 받는 사람마다 고정된 조각들 사이에 값을 HTML 이스케이프해서 끼워 넣기만 하면 되기 때문에 템플릿을 다시 해석하지 않는다.
+public class MailTemplate {
+
+    // 렌더링할 때 스레드마다 다시 쓰는 버퍼. 본문 크기만큼 한 번 늘어나면 그대로 쓴다.
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024; // 이보다 큰 버퍼는 다시 쓰지 않는다. (큰 메일 한 통 때문에 메모리를 계속 잡고 있지 않도록)
+
+    private final String[] fragments; // 고정된 조각. slots 보다 하나 많다.
+    private final Slot[] slots;
+
+    MailTemplate(List<String> fragments, List<Slot> slots) {
+        this.fragments = fragments.toArray(new String[0]);
+        this.slots = slots.toArray(new Slot[0]);
+    }
+
+    // 받는 사람 한 명. values 에는 컴파일할 때 정한 recipientVariables 가 모두 있어야 한다.
+    public String render(Map<String, ?> values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        try {
+            buffer.append(fragments[0]);
+            for(int i = 0; i < slots.length; i++){
+                Slot slot = slots[i];
+                Object value = values.get(slot.variable);
+                if(value == null && !values.containsKey(slot.variable)){
+                    throw new IllegalArgumentException("메일 템플릿 변수 " + slot.variable + " 값이 없습니다.");
+                }
+                String text = value == null ? "" : value.toString();
+                buffer.append(slot.escape ? HtmlEscape.escapeHtml4Xml(text) : text);
+                buffer.append(fragments[i + 1]);
+            }
+            return buffer.toString();
+        } finally {
+            if(buffer.capacity() > MAX_POOLED_CAPACITY){
+                BUFFER.remove();
+            }
+        }
+    }
+
+    // 받는 사람 목록을 한 번에. 같은 순서로 돌려준다.
+    public List<String> renderAll(List<? extends Map<String, ?>> recipients) {
+        List<String> rendered = new ArrayList<>(recipients.size());
+        for(Map<String, ?> values : recipients){
+            rendered.add(render(values));
+        }
+        return rendered;
+    }
+
+    // 받는 사람마다 바뀌는 변수 값과 상관없이 고정된 조각과 빈칸이 같은지
+    boolean hasSameStructure(MailTemplate other) {
+        return Arrays.equals(fragments, other.fragments) && Arrays.equals(slots, other.slots);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    static class Slot {
+        private final String variable;
+        private final boolean escape; // th:text, th:href 처럼 이스케이프해서 출력하는 자리. (th:utext 는 false)
+    }
+}
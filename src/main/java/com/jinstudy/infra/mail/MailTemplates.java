@@ -0,0 +1,92 @@
+package com.jinstudy.infra.mail;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// 메일 템플릿(templates/mail/*.html)을 MailTemplate 로 컴파일해서 캐싱한다.
+// 알림 메일은 같은 템플릿에 링크, 닉네임만 바꿔서 수백 통씩 보내는데, TemplateEngine.process 는 메일마다 템플릿을 처음부터 다시 처리한다.
+// - 받는 사람마다 바뀌는 변수(recipientVariables)에 표시 문자열을 넣고 한 번 렌더링한 뒤에 표시 문자열 위치로 본문을 자른다.
+// - 표시 문자열에는 '&' 가 들어있어서 이스케이프된 자리(th:text)와 그대로 출력된 자리(th:utext)를 구분할 수 있다.
+// - 받는 사람마다 바뀌는 변수는 출력만 해야 한다. (th:if, th:each 조건이나 #strings 로 가공하면 받는 사람마다 본문 구조가 달라진다)
+//   다른 표시 문자열로 한 번 더 렌더링해서 구조가 같은지 확인하고, 다르면 IllegalArgumentException
+// - 템플릿 이름 + 고정 변수(host, 메시지 ...) 별로 캐싱한다.
+@Component
+public class MailTemplates {
+
+    private static final String CACHE_NAME = "mailTemplates";
+    private static final long MAXIMUM_SIZE = 100;
+    private static final char MARKER_START = '\uE000'; // 유니코드 사용자 정의 영역 문자. 템플릿이나 변수 값에 나오지 않는다.
+    private static final char MARKER_END = '\uE001';
+
+    private final TemplateEngine templateEngine;
+    private final Cache<Key, MailTemplate> cache;
+
+    public MailTemplates(TemplateEngine templateEngine, MeterRegistry meterRegistry) {
+        this.templateEngine = templateEngine;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public MailTemplate get(String templateName, Map<String, ?> fixedVariables, String... recipientVariables) {
+        return cache.get(new Key(templateName, Map.<String, Object>copyOf(fixedVariables), List.of(recipientVariables)), this::compile);
+    }
+
+    private MailTemplate compile(Key key) {
+        MailTemplate template = compile(key, MARKER_START + "a");
+        if(!template.hasSameStructure(compile(key, MARKER_START + "b" + "-".repeat(32)))){ // 길이도 다른 값으로 (#strings.length 등)
+            throw new IllegalArgumentException(key.templateName + " 템플릿이 받는 사람마다 바뀌는 변수 " + key.recipientVariables + " 값에 따라 다르게 렌더링됩니다.");
+        }
+        return template;
+    }
+
+    // 변수 i 의 표시 문자열: prefix + i + "&" + MARKER_END. 이스케이프된 자리에는 "&amp;" 로 들어간다.
+    private MailTemplate compile(Key key, String prefix) {
+        Context context = new Context();
+        context.setVariables(key.fixedVariables);
+        for(int i = 0; i < key.recipientVariables.size(); i++){
+            context.setVariable(key.recipientVariables.get(i), prefix + i + "&" + MARKER_END);
+        }
+        String html = templateEngine.process(key.templateName, context);
+
+        List<String> fragments = new ArrayList<>();
+        List<MailTemplate.Slot> slots = new ArrayList<>();
+        int from = 0;
+        int markerStart;
+        while((markerStart = html.indexOf(prefix, from)) >= 0){
+            int markerEnd = html.indexOf(MARKER_END, markerStart);
+            String marker = markerEnd < 0 ? "" : html.substring(markerStart + prefix.length(), markerEnd);
+            boolean escaped = marker.endsWith("&amp;");
+            String index = marker.substring(0, Math.max(0, marker.length() - (escaped ? 5 : 1)));
+            if(!(marker.endsWith("&") || escaped) || !index.matches("\\d+")){
+                throw new IllegalArgumentException(key.templateName + " 템플릿에서 받는 사람마다 바뀌는 변수를 가공해서 출력합니다.");
+            }
+            fragments.add(html.substring(from, markerStart));
+            slots.add(new MailTemplate.Slot(key.recipientVariables.get(Integer.parseInt(index)), escaped));
+            from = markerEnd + 1;
+        }
+        fragments.add(html.substring(from));
+        return new MailTemplate(fragments, slots);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final String templateName;
+        private final Map<String, Object> fixedVariables;
+        private final List<String> recipientVariables;
+    }
+}
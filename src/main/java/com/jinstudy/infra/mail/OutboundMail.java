@@ -0,0 +1,59 @@
+package com.jinstudy.infra.mail;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 보낼 메일. 메일을 보내려는 트랜잭션에서 같이 저장되기 때문에 롤백되면 메일도 보내지 않고, 커밋되면 애플리케이션이 죽어도 나중에 보낸다.
+@Entity
+@Table(indexes = @Index(columnList = "status, next_attempt_at"))
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@NoArgsConstructor
+public class OutboundMail {
+
+    @Id @GeneratedValue
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String subject;
+
+    @Column(columnDefinition = "text") // OutboundMailRepositoryExtension 이 JDBC 로 문자열을 그대로 넣는다. (@Lob 은 PostgreSQL 에서 large object 로 저장된다)
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboundMailStatus status;
+
+    private int attempts; // 보내려고 시도한 횟수
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt; // PENDING: 이 시각 이후에 보낸다. SENDING: 이 시각까지 보내지 못하면 다시 보낸다.
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public static OutboundMail pending(EmailMessage emailMessage) {
+        OutboundMail mail = new OutboundMail();
+        mail.recipient = emailMessage.getTo();
+        mail.subject = emailMessage.getSubject();
+        mail.message = emailMessage.getMessage();
+        mail.status = OutboundMailStatus.PENDING;
+        mail.createdAt = LocalDateTime.now();
+        mail.nextAttemptAt = mail.createdAt;
+        return mail;
+    }
+
+    public EmailMessage toEmailMessage() {
+        return EmailMessage.builder().to(recipient).subject(subject).message(message).build();
+    }
+}
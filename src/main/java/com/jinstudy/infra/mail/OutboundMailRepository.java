@@ -0,0 +1,41 @@
+package com.jinstudy.infra.mail;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface OutboundMailRepository extends JpaRepository<OutboundMail, Long>, OutboundMailRepositoryExtension {
+
+    // 보낼 차례가 된 메일. 오래 기다린 메일부터
+    @Query("select m.id from OutboundMail m where m.status in :statuses and m.nextAttemptAt <= :now order by m.nextAttemptAt")
+    List<Long> findDueIds(@Param("statuses") Collection<OutboundMailStatus> statuses, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // 조회한 뒤에 다른 워커(다른 서버)가 먼저 가져갔으면 0을 리턴한다. -> 같은 메일을 두 워커가 동시에 보내지 않는다.
+    @Transactional
+    @Modifying
+    @Query("update OutboundMail m set m.status = :sending, m.nextAttemptAt = :leaseUntil " +
+            "where m.id = :id and m.status in :statuses and m.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("statuses") Collection<OutboundMailStatus> statuses, @Param("now") LocalDateTime now,
+              @Param("sending") OutboundMailStatus sending, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboundMail m set m.status = :status, m.attempts = m.attempts + 1, m.sentAt = :sentAt, m.lastError = null where m.id = :id")
+    int markSent(@Param("id") Long id, @Param("status") OutboundMailStatus sent, @Param("sentAt") LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboundMail m set m.status = :status, m.attempts = m.attempts + 1, m.nextAttemptAt = :nextAttemptAt, m.lastError = :error where m.id = :id")
+    int markFailed(@Param("id") Long id, @Param("status") OutboundMailStatus status, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    long countByStatus(OutboundMailStatus status);
+}
@@ -0,0 +1,13 @@
+package com.jinstudy.infra.mail;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Transactional(readOnly = true)
+public interface OutboundMailRepositoryExtension {
+
+    // 보낼 메일(PENDING)을 JDBC batch 로 넣는다. 알림 메일처럼 한 번에 많이 넣을 때
+    @Transactional
+    void insertAll(Collection<EmailMessage> emailMessages);
+}
@@ -0,0 +1,30 @@
+package com.jinstudy.infra.mail;
+
+import com.jinstudy.infra.jpa.IdSequences;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class OutboundMailRepositoryExtensionImpl implements OutboundMailRepositoryExtension {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void insertAll(Collection<EmailMessage> emailMessages) {
+        String sql = "insert into outbound_mail (id, recipient, subject, message, status, attempts, next_attempt_at, created_at) " +
+                "values (" + IdSequences.nextValueExpression(entityManagerFactory, OutboundMail.class) + ", ?, ?, ?, ?, 0, ?, ?)";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = emailMessages.stream()
+                .map(message -> new Object[]{message.getTo(), message.getSubject(), message.getMessage(), OutboundMailStatus.PENDING.name(), now, now})
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(sql, args);
+    }
+}
@@ -0,0 +1,12 @@
+package com.jinstudy.infra.mail;
+
+public enum OutboundMailStatus {
+
+    PENDING, // 보낼 차례를 기다리는 중 (처음 보내거나 다시 보낼 메일)
+
+    SENDING, // 워커가 보내는 중. nextAttemptAt 까지 끝나지 않으면 애플리케이션이 죽은 것으로 보고 다시 보낸다.
+
+    SENT,
+
+    DEAD // maxAttempts 번 모두 실패. 원인(lastError)을 확인하고 직접 처리해야 한다.
+}
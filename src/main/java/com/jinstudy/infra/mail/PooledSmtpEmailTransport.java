@@ -0,0 +1,138 @@
+package com.jinstudy.infra.mail;
+
+import com.jinstudy.infra.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+// SMTP 로 HTML 메일을 보낸다.
+// JavaMailSender.send 는 메일마다 SMTP 연결(+ STARTTLS, 로그인)을 새로 맺고 끊어서 알림을 많이 보낼 때 대부분의 시간을 연결에 쓴다.
+// - 로그인까지 마친 연결(Transport)을 smtp-pool-size 개까지 열어두고 다시 쓴다. 동시에 보내는 묶음도 그 수 만큼으로 제한된다.
+// - 묶음(sendAll)은 연결 하나로 모두 보낸다. 연결이 끊기면 새로 맺고 나머지를 보낸다.
+// - 전체 전송 속도는 max-messages-per-second 를 넘지 않는다.
+@Slf4j
+@Profile("dev")
+@Component
+public class PooledSmtpEmailTransport implements EmailTransport, DisposableBean {
+
+    private final JavaMailSenderImpl javaMailSender;
+    private final Semaphore connections; // 동시에 쓸 수 있는 연결 수
+    private final BlockingQueue<Transport> idle = new LinkedBlockingQueue<>(); // 열려있는, 지금은 쓰지 않는 연결
+    private final MailRateLimiter rateLimiter;
+
+    public PooledSmtpEmailTransport(JavaMailSenderImpl javaMailSender, AppProperties appProperties) {
+        this.javaMailSender = javaMailSender;
+        this.connections = new Semaphore(appProperties.getMail().getSmtpPoolSize());
+        this.rateLimiter = new MailRateLimiter(appProperties.getMail().getMaxMessagesPerSecond());
+    }
+
+    @Override
+    public void send(EmailMessage emailMessage) {
+        RuntimeException failure = sendAll(List.of(emailMessage)).get(0);
+        if(failure != null){
+            throw failure;
+        }
+    }
+
+    @Override
+    public List<RuntimeException> sendAll(List<EmailMessage> emailMessages) {
+        List<RuntimeException> failures = new ArrayList<>(emailMessages.size());
+        try {
+            connections.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.nCopies(emailMessages.size(), new MailSendException("interrupted while waiting for smtp connection", e));
+        }
+
+        Transport transport = null;
+        try {
+            for(EmailMessage emailMessage : emailMessages){
+                if(transport == null){
+                    try {
+                        transport = borrow();
+                    } catch (MessagingException e) { // 서버에 연결할 수 없으면 나머지도 보낼 수 없다.
+                        failures.addAll(Collections.nCopies(emailMessages.size() - failures.size(), new MailSendException("failed to connect to smtp server", e)));
+                        break;
+                    }
+                }
+                try {
+                    rateLimiter.acquire();
+                    MimeMessage mimeMessage = createMimeMessage(emailMessage);
+                    transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+                    failures.add(null);
+                } catch (MessagingException e) {
+                    log.error("failed to send email to {}", emailMessage.getTo(), e);
+                    failures.add(new MailSendException("failed to send email to " + emailMessage.getTo(), e));
+                    if(!transport.isConnected()){ // 받는 사람 주소가 잘못된 경우 등은 연결을 계속 쓸 수 있다.
+                        close(transport);
+                        transport = null;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failures.addAll(Collections.nCopies(emailMessages.size() - failures.size(), new MailSendException("interrupted while sending emails", e)));
+                    break;
+                }
+            }
+        } finally {
+            if(transport != null){
+                idle.offer(transport);
+            }
+            connections.release();
+        }
+        return failures;
+    }
+
+    // 쉬는 동안 서버가 끊은 연결은 버린다. (isConnected 는 NOOP 을 보내서 확인한다)
+    private Transport borrow() throws MessagingException {
+        Transport transport;
+        while((transport = idle.poll()) != null){
+            if(transport.isConnected()){
+                return transport;
+            }
+            close(transport);
+        }
+        transport = javaMailSender.getSession().getTransport(javaMailSender.getProtocol());
+        transport.connect(javaMailSender.getHost(), javaMailSender.getPort(), javaMailSender.getUsername(), javaMailSender.getPassword());
+        return transport;
+    }
+
+    private MimeMessage createMimeMessage(EmailMessage emailMessage) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+        mimeMessageHelper.setTo(emailMessage.getTo());
+        mimeMessageHelper.setSubject(emailMessage.getSubject());
+        mimeMessageHelper.setText(emailMessage.getMessage(), true);
+        mimeMessage.saveChanges(); // Transport.send 와 달리 sendMessage 는 헤더(Message-ID 등)를 채워주지 않는다.
+        return mimeMessage;
+    }
+
+    private void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("failed to close smtp connection", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Transport transport;
+        while((transport = idle.poll()) != null){
+            close(transport);
+        }
+    }
+}
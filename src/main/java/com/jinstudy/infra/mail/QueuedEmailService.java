@@ -0,0 +1,47 @@
+package com.jinstudy.infra.mail;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+// 예전에는 메일을 보내려는 트랜잭션(가입 등) 안에서 SMTP 로 바로 보내서, SMTP 서버가 느리면 그 동안 DB 커넥션을 잡고 응답이 늦어졌고
+// 메일을 보내지 못하면 가입까지 롤백되었다.
+// 지금은 같은 트랜잭션에서 메일 큐(OutboundMail)에 넣기만 하고, 커밋되면 MailQueueWorker 가 따로 보낸다. (실패하면 다시 보낸다)
+@Component
+@RequiredArgsConstructor
+public class QueuedEmailService implements EmailService {
+
+    private final OutboundMailRepository outboundMailRepository;
+    private final MailQueueWorker mailQueueWorker;
+
+    @Transactional
+    @Override
+    public void sendEmail(EmailMessage emailMessage) {
+        outboundMailRepository.save(OutboundMail.pending(emailMessage));
+        wakeUpAfterCommit();
+    }
+
+    @Transactional
+    @Override
+    public void sendEmails(List<EmailMessage> emailMessages) {
+        if(emailMessages.isEmpty()){
+            return;
+        }
+        outboundMailRepository.insertAll(emailMessages); // JDBC batch
+        wakeUpAfterCommit();
+    }
+
+    // 롤백되면 메일도 같이 없어진다. 커밋되면 poll-interval 을 기다리지 않고 바로 보낸다.
+    private void wakeUpAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mailQueueWorker.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.jinstudy.infra.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 도메인 이벤트를 바뀐 데이터와 같은 트랜잭션에서 outbox_event 에 넣는다.
+// ApplicationEventPublisher + @Async 리스너는 메모리에만 있어서 애플리케이션이 죽거나 실행 큐가 넘치면 이벤트를 잃어버린다.
+// 이벤트는 JSON 으로 저장하기 때문에 엔티티 대신 id 같은 값만 담는다.
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher outboxDispatcher;
+    private final ObjectMapper objectMapper;
+
+    // 트랜잭션 밖에서 부르면 이벤트와 데이터가 따로 커밋되니까 실패한다.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("이벤트를 JSON 으로 바꿀 수 없습니다. " + event.getClass().getName(), e);
+        }
+        outboxEventRepository.save(OutboxEvent.pending(event.getClass().getName(), payload));
+        // 커밋되면 poll-interval 을 기다리지 않고 바로 전달한다.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxDispatcher.wakeUp();
+            }
+        });
+    }
+}
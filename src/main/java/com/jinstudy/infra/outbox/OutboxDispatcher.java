@@ -0,0 +1,212 @@
+package com.jinstudy.infra.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jinstudy.infra.config.AppProperties;
+import com.jinstudy.infra.executor.WorkloadExecutors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// outbox_event 에서 전달할 차례가 된 이벤트를 batch-size 개씩 꺼내서 발행한 순서대로 하나씩 OutboxEventHandler 에 넘긴다.
+// - 결과는 이벤트마다 기록한다. 한 이벤트가 실패해도 같이 꺼낸 다른 이벤트는 DONE 이 되고, 실패한 이벤트만 다시 전달한다.
+// - 이벤트를 넣은 트랜잭션이 커밋되면 바로(wakeUp), 그 밖에는 poll-interval 마다 확인한다. (재시도, 애플리케이션이 죽어서 전달하지 못한 이벤트)
+//   어느 쪽이든 전달은 outbox 풀에서 한다. 스케줄러 스레드는 하나라서 거기서 전달하면 그동안 다른 @Scheduled 작업이 밀린다.
+// - 꺼낸 이벤트는 processing-timeout 동안 다른 디스패처가 가져가지 않는다(lease). 묶음을 전달하는 동안 lease 가 절반 넘게 지나면
+//   이벤트 하나를 넘기기 전에 남은 이벤트의 lease 를 다시 processing-timeout 만큼 늘린다. -> 이벤트마다 processing-timeout 안에 끝내면 된다.
+// - 핸들러가 실패하면 initial-backoff * 2^(시도 횟수 - 1) 뒤에 (최대 max-backoff) 다시 전달하고, max-attempts 번 실패하면 DEAD 로 남긴다.
+// - 전달하고 나서 결과를 기록하기 전에 죽으면 processing-timeout 뒤에 한 번 더 전달한다. (최소 한 번 전달)
+// - 지표: outbox.events (type, result=done|retry|dead) - 처리량, outbox.lag (type) - 발행부터 처리까지 걸린 시간,
+//   outbox.handle (type) - 핸들러가 이벤트 하나를 처리한 시간, outbox.queue.depth (status=pending|processing|dead),
+//   outbox.oldest.pending.age - 아직 전달하지 못한 가장 오래된 이벤트가 기다린 시간
+@Slf4j
+@Component
+public class OutboxDispatcher implements DisposableBean {
+
+    private static final List<OutboxEventStatus> DUE_STATUSES = List.of(OutboxEventStatus.PENDING, OutboxEventStatus.PROCESSING);
+    private static final int ERROR_MAX_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final AppProperties.Outbox properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OutboxEventHandler<?>> handlers = new HashMap<>(); // 이벤트 클래스 이름 -> 핸들러
+    private final ThreadPoolTaskExecutor executor;
+    private final AtomicBoolean wakeUpRequested = new AtomicBoolean();
+    private final Map<OutboxEventStatus, AtomicLong> depth = new EnumMap<>(OutboxEventStatus.class);
+    private final AtomicLong oldestPendingAge = new AtomicLong(); // ms
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, List<OutboxEventHandler<?>> handlers, ObjectMapper objectMapper,
+                            AppProperties appProperties, WorkloadExecutors workloadExecutors, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.properties = appProperties.getOutbox();
+        this.meterRegistry = meterRegistry;
+        for(OutboxEventHandler<?> handler : handlers){
+            if(this.handlers.put(handler.getEventType().getName(), handler) != null){
+                throw new IllegalStateException("이벤트 하나에 핸들러가 여러 개 있습니다. " + handler.getEventType().getName());
+            }
+        }
+
+        // 전달하는 동안 들어온 wakeUp 은 하나로 합친다.
+        this.executor = workloadExecutors.create("outbox", appProperties.getExecutor().getOutbox());
+
+        for(OutboxEventStatus status : List.of(OutboxEventStatus.PENDING, OutboxEventStatus.PROCESSING, OutboxEventStatus.DEAD)){
+            depth.put(status, meterRegistry.gauge("outbox.queue.depth", Tags.of("status", status.name().toLowerCase()), new AtomicLong()));
+        }
+        TimeGauge.builder("outbox.oldest.pending.age", oldestPendingAge, TimeUnit.MILLISECONDS, AtomicLong::get).register(meterRegistry);
+    }
+
+    // 이벤트를 넣은 트랜잭션이 커밋된 뒤에 호출된다. 요청 스레드는 기다리지 않는다.
+    public void wakeUp() {
+        if(!wakeUpRequested.compareAndSet(false, true)){
+            return; // 아직 시작하지 않은 전달이 있다. 그 때 같이 꺼낸다.
+        }
+        try {
+            executor.execute(() -> {
+                wakeUpRequested.set(false);
+                dispatch();
+            });
+        } catch (TaskRejectedException e) {
+            wakeUpRequested.set(false);
+            log.debug("outbox dispatcher is busy or shutting down, events will be dispatched on next poll"); // 테이블에 있으니 다음에 전달한다.
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@appProperties.outbox.pollInterval.toMillis()}")
+    public void poll() {
+        wakeUp();
+    }
+
+    // 전달할 차례가 된 이벤트가 없을 때까지 batch-size 개씩 꺼내서 전달한다. 꺼낸 이벤트 수를 리턴한다.
+    public synchronized int dispatch() {
+        int dispatched = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = claimBatch();
+            deliver(batch);
+            dispatched += batch.size();
+        } while(batch.size() == properties.getBatchSize());
+        updateGauges();
+        return dispatched;
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = outboxEventRepository.findDueIds(DUE_STATUSES, now, PageRequest.of(0, properties.getBatchSize()));
+        if(ids.isEmpty()){
+            return List.of();
+        }
+        String claimedBy = UUID.randomUUID().toString();
+        if(outboxEventRepository.claim(ids, DUE_STATUSES, now, OutboxEventStatus.PROCESSING, now.plus(properties.getProcessingTimeout()), claimedBy) == 0){
+            return List.of(); // 다른 디스패처가 먼저 가져갔다.
+        }
+        return outboxEventRepository.findByClaimedByOrderById(claimedBy);
+    }
+
+    void deliver(List<OutboxEvent> batch) {
+        if(batch.isEmpty()){
+            return;
+        }
+        String claimedBy = batch.get(0).getClaimedBy();
+        LocalDateTime leaseUntil = batch.get(0).getNextAttemptAt();
+        Duration renewBefore = properties.getProcessingTimeout().dividedBy(2);
+        for(OutboxEvent event : batch){
+            if(LocalDateTime.now().isAfter(leaseUntil.minus(renewBefore))){
+                leaseUntil = LocalDateTime.now().plus(properties.getProcessingTimeout());
+                if(outboxEventRepository.extendLease(claimedBy, OutboxEventStatus.PROCESSING, leaseUntil) == 0){
+                    log.warn("outbox lease {} expired and events were claimed again, stopping this batch", claimedBy); // 가져간 디스패처가 전달한다.
+                    return;
+                }
+            }
+            deliver(event);
+        }
+    }
+
+    private <T> void deliver(OutboxEvent event) {
+        @SuppressWarnings("unchecked")
+        OutboxEventHandler<T> handler = (OutboxEventHandler<T>) handlers.get(event.getType());
+        if(handler == null){
+            fail(event, new IllegalStateException("이벤트를 받을 핸들러가 없습니다. " + event.getType()));
+            return;
+        }
+        T payload;
+        try {
+            payload = objectMapper.readValue(event.getPayload(), handler.getEventType());
+        } catch (IOException e) {
+            fail(event, new IllegalStateException("이벤트를 읽을 수 없습니다. " + event.getPayload(), e));
+            return;
+        }
+        Tags tags = Tags.of("type", handler.getEventType().getSimpleName());
+        try {
+            Timer.builder("outbox.handle").tags(tags).register(meterRegistry).record(() -> handler.handle(payload));
+        } catch (RuntimeException e) {
+            fail(event, e);
+            return;
+        }
+        LocalDateTime processedAt = LocalDateTime.now();
+        outboxEventRepository.markDone(List.of(event.getId()), OutboxEventStatus.DONE, processedAt);
+        Counter.builder("outbox.events").tags(tags).tag("result", "done").register(meterRegistry).increment();
+        Timer.builder("outbox.lag").tags(tags).register(meterRegistry).record(Duration.between(event.getCreatedAt(), processedAt));
+    }
+
+    private void fail(OutboxEvent event, RuntimeException failure) {
+        int attempts = event.getAttempts() + 1;
+        String error = abbreviate(failure.toString());
+        String type = event.getType().substring(event.getType().lastIndexOf('.') + 1);
+        if(attempts >= properties.getMaxAttempts()){
+            outboxEventRepository.markFailed(List.of(event.getId()), OutboxEventStatus.DEAD, LocalDateTime.now(), error);
+            Counter.builder("outbox.events").tags("type", type, "result", "dead").register(meterRegistry).increment();
+            log.error("failed to dispatch outbox event {} ({}) {} times, giving up", event.getId(), event.getType(), attempts, failure);
+        } else {
+            Duration backoff = backoff(attempts);
+            outboxEventRepository.markFailed(List.of(event.getId()), OutboxEventStatus.PENDING, LocalDateTime.now().plus(backoff), error);
+            Counter.builder("outbox.events").tags("type", type, "result", "retry").register(meterRegistry).increment();
+            log.warn("failed to dispatch outbox event {} ({}) (attempt {}), retrying in {}", event.getId(), event.getType(), attempts, backoff, failure);
+        }
+    }
+
+    private void updateGauges() {
+        depth.forEach((status, gauge) -> gauge.set(outboxEventRepository.countByStatus(status)));
+        LocalDateTime oldest = outboxEventRepository.findOldestCreatedAt(DUE_STATUSES);
+        oldestPendingAge.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+    }
+
+    // 처리한 이벤트는 retention 동안 남겨뒀다가 지운다. (무슨 일이 있었는지 확인할 수 있도록)
+    @Scheduled(cron = "${app.outbox.purge-cron}")
+    public void purgeProcessed() {
+        int purged = outboxEventRepository.deleteProcessedBefore(OutboxEventStatus.DONE, LocalDateTime.now().minus(properties.getRetention()));
+        log.info("purged {} processed outbox events", purged);
+    }
+
+    // attempts 번 실패한 뒤에 기다릴 시간
+    Duration backoff(int attempts) {
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() > ERROR_MAX_LENGTH ? error.substring(0, ERROR_MAX_LENGTH) : error;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown(); // 전달하는 중인 이벤트는 기다리고, 남은 이벤트는 다음에 애플리케이션이 뜨면 전달한다.
+    }
+}
@@ -0,0 +1,55 @@
+package com.jinstudy.infra.outbox;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 전달할 도메인 이벤트. 이벤트를 발행한 트랜잭션에서 같이 저장되기 때문에 롤백되면 이벤트도 없어지고, 커밋되면 애플리케이션이 죽어도 나중에 전달한다.
+@Entity
+@Table(indexes = {@Index(columnList = "status, next_attempt_at"), @Index(columnList = "claimed_by")})
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id @GeneratedValue
+    private Long id;
+
+    @Column(nullable = false)
+    private String type; // 이벤트 클래스 이름
+
+    @Column(columnDefinition = "text", nullable = false)
+    private String payload; // 이벤트를 JSON 으로
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxEventStatus status;
+
+    private int attempts; // 전달하려고 시도한 횟수
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt; // PENDING: 이 시각 이후에 전달한다. PROCESSING: 이 시각까지 끝내지 못하면 다시 전달한다.
+
+    private String claimedBy; // 마지막으로 가져간 디스패처 실행
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public static OutboxEvent pending(String type, String payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.type = type;
+        event.payload = payload;
+        event.status = OutboxEventStatus.PENDING;
+        event.createdAt = LocalDateTime.now();
+        event.nextAttemptAt = event.createdAt;
+        return event;
+    }
+}
@@ -0,0 +1,11 @@
+package com.jinstudy.infra.outbox;
+
+// Outbox 로 발행한 이벤트를 받는 쪽. 빈으로 등록하면 OutboxDispatcher 가 찾아서 eventType 이벤트를 발행한 순서대로 하나씩 넘겨준다.
+// - 최소 한 번 전달한다. 처리하다 실패하거나 처리한 뒤에 결과를 기록하기 전에 죽으면 같은 이벤트를 다시 받기 때문에 여러 번 받아도 괜찮게 처리해야 한다.
+// - 예외를 던지면 그 이벤트만 나중에 다시 전달한다. 같이 꺼낸 다른 이벤트는 영향을 받지 않는다.
+public interface OutboxEventHandler<T> {
+
+    Class<T> getEventType();
+
+    void handle(T event);
+}
@@ -0,0 +1,60 @@
+package com.jinstudy.infra.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // 전달할 차례가 된 이벤트. 발행한 순서대로
+    @Query("select e.id from OutboxEvent e where e.status in :statuses and e.nextAttemptAt <= :now order by e.id")
+    List<Long> findDueIds(@Param("statuses") Collection<OutboxEventStatus> statuses, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // 조회한 뒤에 다른 디스패처(다른 서버)가 먼저 가져간 이벤트는 빼고 가져간다. 가져간 이벤트는 findByClaimedBy 로 읽는다.
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.status = :processing, e.nextAttemptAt = :leaseUntil, e.claimedBy = :claimedBy " +
+            "where e.id in :ids and e.status in :statuses and e.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<OutboxEventStatus> statuses, @Param("now") LocalDateTime now,
+              @Param("processing") OutboxEventStatus processing, @Param("leaseUntil") LocalDateTime leaseUntil, @Param("claimedBy") String claimedBy);
+
+    List<OutboxEvent> findByClaimedByOrderById(String claimedBy);
+
+    // 꺼낸 묶음을 전달하는 동안 아직 처리하지 않은 이벤트를 다른 디스패처가 다시 가져가지 않도록 lease 를 늘린다.
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.nextAttemptAt = :leaseUntil where e.claimedBy = :claimedBy and e.status = :processing")
+    int extendLease(@Param("claimedBy") String claimedBy, @Param("processing") OutboxEventStatus processing, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.status = :status, e.attempts = e.attempts + 1, e.processedAt = :processedAt, e.lastError = null " +
+            "where e.id in :ids")
+    int markDone(@Param("ids") Collection<Long> ids, @Param("status") OutboxEventStatus done, @Param("processedAt") LocalDateTime processedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.status = :status, e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error " +
+            "where e.id in :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("status") OutboxEventStatus status, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.status = :status and e.processedAt < :before")
+    int deleteProcessedBefore(@Param("status") OutboxEventStatus done, @Param("before") LocalDateTime before);
+
+    long countByStatus(OutboxEventStatus status);
+
+    // 아직 전달하지 못한 이벤트 중에 가장 오래된 이벤트를 발행한 시각. 없으면 null
+    @Query("select min(e.createdAt) from OutboxEvent e where e.status in :statuses")
+    LocalDateTime findOldestCreatedAt(@Param("statuses") Collection<OutboxEventStatus> statuses);
+}
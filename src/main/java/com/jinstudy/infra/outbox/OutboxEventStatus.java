@@ -0,0 +1,8 @@
+package com.jinstudy.infra.outbox;
+
+public enum OutboxEventStatus {
+    PENDING, // 전달할 차례를 기다린다. (실패해서 다시 전달할 이벤트도)
+    PROCESSING, // 디스패처가 가져가서 핸들러에 전달하는 중
+    DONE, // 핸들러가 처리했다.
+    DEAD // max-attempts 번 실패해서 더 전달하지 않는다.
+}
@@ -0,0 +1,138 @@
+package com.jinstudy.infra.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jinstudy.infra.config.AppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// remember-me 토큰 저장소. (persistent_logins 테이블, PersistentLogins 엔티티)
+// JdbcTokenRepositoryImpl 은 remember-me 쿠키로 자동 로그인할 때마다 series 로 select, 새 토큰 값으로 update 를 바로 보낸다.
+// - series -> 토큰을 메모리에 캐싱해서 자동 로그인할 때 select 를 하지 않는다.
+// - 토큰 값과 last_used 변경은 메모리(pending)에만 해두고 flush-interval 마다 batch update 한 번으로 모아서 쓴다.
+//   pending 에 있는 토큰이 DB 보다 최신이라서 조회할 때 pending -> 캐시 -> DB 순서로 찾는다.
+//   PersistentTokenBasedRememberMeServices 는 항상 가장 최신 토큰 값과 쿠키를 비교하기 때문에 토큰 도용 감지(CookieTheftException)는 그대로 동작한다.
+// - 애플리케이션이 종료될 때 남은 변경을 쓴다. 쓰지 못하고 죽으면 그 사이에 자동 로그인한 사용자는 다음 자동 로그인 때 도용으로 판단되어 다시 로그인해야 한다.
+// - 메모리에 최신 토큰을 들고 있기 때문에 애플리케이션을 한 대로 띄울 때만 쓴다.
+//   여러 대로 띄우면 app.remember-me.token-store=jdbc 로 JdbcTokenRepositoryImpl 을 쓴다. (AppConfig)
+// - 만료된(token-validity 동안 쓰지 않은) series 는 purge-cron 마다 지운다. 안 지우면 로그아웃하지 않고 떠난 사용자의 토큰이 계속 쌓인다.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.remember-me.token-store", havingValue = "caching", matchIfMissing = true)
+public class CachingPersistentTokenRepository implements PersistentTokenRepository, DisposableBean {
+
+    private static final String CACHE_NAME = "rememberMeTokens";
+
+    private static final String UPDATE_SQL = "update persistent_logins set token = ?, last_used = ? where series = ?";
+    private static final String PURGE_SQL = "delete from persistent_logins where last_used < ?";
+
+    private final JdbcTokenRepositoryImpl delegate = new JdbcTokenRepositoryImpl(); // 새 토큰 저장, series 조회, 사용자 토큰 삭제
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration tokenValidity;
+    private final Cache<String, PersistentRememberMeToken> cache;
+    private final Map<String, PersistentRememberMeToken> pending = new ConcurrentHashMap<>(); // series -> 아직 DB에 쓰지 않은 토큰
+
+    public CachingPersistentTokenRepository(DataSource dataSource, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                            AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.delegate.setDataSource(dataSource);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.tokenValidity = appProperties.getRememberMe().getTokenValidity();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(appProperties.getCache().getRememberMeMaximumSize())
+                .expireAfterAccess(appProperties.getCache().getRememberMeExpireAfterAccess())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        meterRegistry.gaugeMapSize("remember.me.pending.updates", Tags.empty(), pending);
+    }
+
+    @Override
+    public void createNewToken(PersistentRememberMeToken token) {
+        delegate.createNewToken(token); // 로그인할 때 한 번. series 가 겹치면 바로 실패해야 하니까 바로 쓴다.
+        cache.put(token.getSeries(), token);
+    }
+
+    @Override
+    public void updateToken(String series, String tokenValue, Date lastUsed) {
+        PersistentRememberMeToken current = getTokenForSeries(series);
+        if(current == null){
+            return; // 그 사이에 로그아웃했거나 도용으로 판단되어 지워졌다.
+        }
+        PersistentRememberMeToken updated = new PersistentRememberMeToken(current.getUsername(), series, tokenValue, lastUsed);
+        pending.put(series, updated);
+        cache.put(series, updated);
+    }
+
+    @Override
+    public PersistentRememberMeToken getTokenForSeries(String seriesId) {
+        PersistentRememberMeToken token = pending.get(seriesId);
+        if(token != null){
+            return token;
+        }
+        return cache.get(seriesId, delegate::getTokenForSeries); // 없는 series 는 캐싱하지 않는다.
+    }
+
+    @Override
+    public void removeUserTokens(String username) {
+        // 로그아웃하거나 도용을 감지했을 때. 메모리에서만 지우면 DB 에서 지우기 전에 같은 쿠키로 들어온 요청이 지울 토큰을 다시 캐시에 올리고,
+        // expire-after-access 라서 그 쿠키를 계속 쓰는 동안에는 로그아웃한(도용된) 쿠키로 자동 로그인이 된다.
+        // -> 메모리에서 지우고(지운 토큰을 flush 로 다시 쓰지 않도록), DB 에서 지운 뒤에, 그 사이에 다시 올라온 토큰을 한 번 더 지운다.
+        forget(username);
+        delegate.removeUserTokens(username);
+        forget(username);
+    }
+
+    private void forget(String username) {
+        pending.values().removeIf(token -> token.getUsername().equals(username));
+        cache.asMap().values().removeIf(token -> token.getUsername().equals(username));
+    }
+
+    @Scheduled(fixedDelayString = "#{@appProperties.rememberMe.flushInterval.toMillis()}")
+    public synchronized void flush() {
+        if(pending.isEmpty()){
+            return;
+        }
+        List<PersistentRememberMeToken> tokens = new ArrayList<>(pending.values());
+        List<Object[]> updates = new ArrayList<>(tokens.size());
+        for(PersistentRememberMeToken token : tokens){
+            updates.add(new Object[]{token.getTokenValue(), new Timestamp(token.getDate().getTime()), token.getSeries()});
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, updates));
+        // 쓰는 동안 또 바뀐 토큰은 pending 에 남겨서 다음 flush 때 쓴다.
+        tokens.forEach(token -> pending.remove(token.getSeries(), token));
+        log.debug("flushed {} remember-me token updates", tokens.size());
+    }
+
+    @Scheduled(cron = "${app.remember-me.purge-cron}")
+    public void purgeExpired() {
+        flush(); // 메모리에서만 최근에 쓴 토큰이 DB 에서는 만료된 것으로 보이지 않도록
+        Date expiredBefore = new Date(System.currentTimeMillis() - tokenValidity.toMillis());
+        cache.asMap().values().removeIf(token -> token.getDate().before(expiredBefore));
+        int purged = jdbcTemplate.update(PURGE_SQL, new Timestamp(expiredBefore.getTime()));
+        log.info("purged {} expired remember-me tokens", purged);
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+}
@@ -0,0 +1,11 @@
+package com.jinstudy.infra.security;
+
+// 비밀번호 해싱 대기열이 가득 찼을 때. 요청을 기다리게 하지 않고 잠시 후에 다시 시도하라고 응답한다.
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public static final int RETRY_AFTER_SECONDS = 5;
+
+    public PasswordHashingBusyException(Throwable cause) {
+        super("비밀번호를 처리하는 요청이 많습니다. 잠시 후 다시 시도해 주세요.", cause);
+    }
+}
@@ -0,0 +1,26 @@
+package com.jinstudy.infra.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// 폼 로그인은 컨트롤러가 아니라 스프링 시큐리티 필터에서 비밀번호를 비교하기 때문에 @ControllerAdvice 로 처리할 수 없다.
+// UsernamePasswordAuthenticationFilter 앞에 두고, 대기열이 가득 차서 로그인을 처리하지 못하면 로그인 페이지에서 다시 시도하도록 한다.
+// 빈으로 등록하면 서블릿 필터로도 등록되기 때문에 SecurityConfig 에서 직접 만든다.
+public class PasswordHashingBusyFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (PasswordHashingBusyException e) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(PasswordHashingBusyException.RETRY_AFTER_SECONDS));
+            response.sendRedirect(request.getContextPath() + "/login?busy");
+        }
+    }
+}
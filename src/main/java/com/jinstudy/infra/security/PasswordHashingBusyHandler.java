@@ -0,0 +1,20 @@
+package com.jinstudy.infra.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import javax.servlet.http.HttpServletResponse;
+
+// 가입, 비밀번호 변경처럼 컨트롤러에서 비밀번호를 해싱하다가 대기열이 가득 찬 경우
+@ControllerAdvice
+public class PasswordHashingBusyHandler {
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public String busy(HttpServletResponse response) {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(PasswordHashingBusyException.RETRY_AFTER_SECONDS));
+        return "error/busy";
+    }
+}
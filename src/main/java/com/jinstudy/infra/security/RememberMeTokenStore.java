@@ -0,0 +1,7 @@
+package com.jinstudy.infra.security;
+
+// remember-me 토큰을 어디에 두고 읽을지 (app.remember-me.token-store)
+public enum RememberMeTokenStore {
+    CACHING, // CachingPersistentTokenRepository. 최신 토큰을 메모리에 들고 있기 때문에 애플리케이션을 한 대로 띄울 때만 쓴다.
+    JDBC // JdbcTokenRepositoryImpl. 자동 로그인할 때마다 DB 를 읽고 쓴다. 여러 대로 띄울 때는 이걸 써야 다른 서버가 바꾼 토큰을 도용으로 판단하지 않는다.
+}
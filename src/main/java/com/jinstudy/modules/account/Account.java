@@ -45,8 +45,7 @@ public class Account { // 계정 도메인
 
     private String location;
 
-    @Lob @Basic(fetch = FetchType.EAGER)
-    private String profileImage;
+    private String profileImage; // 이미지 자체는 ImageStore 에 저장하고, 여기에는 이미지 URL만 저장한다.
 
     private boolean studyCreatedByEmail;
 
@@ -60,10 +59,13 @@ public class Account { // 계정 도메인
 
     private boolean studyUpdatedByWeb = true;
 
+    // 조인 테이블의 primary key 는 (account_id, tags_id) 라서 태그로 계정을 찾을 때(새 스터디 알림) 쓸 인덱스를 따로 만든다.
     @ManyToMany
+    @JoinTable(name = "account_tags", indexes = @Index(columnList = "tags_id, account_id"))
     private Set<Tag> tags = new HashSet<>(); //다대다 관계로 Account에서만 Tag를 참조하는 단방항 방식
 
     @ManyToMany
+    @JoinTable(name = "account_zones", indexes = @Index(columnList = "zones_id, account_id"))
     private Set<Zone> zones = new HashSet<>();
 
     public void generateEmailCheckToken() {
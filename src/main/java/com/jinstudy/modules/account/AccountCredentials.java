@@ -0,0 +1,33 @@
+package com.jinstudy.modules.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 로그인(아이디/비밀번호, remember-me 자동 로그인)에 필요한 값만 담은 Account 의 projection. UserAccount(Principal)를 만들 때 사용한다.
+// 한 번 만들면 바뀌지 않기 때문에 AccountCredentialsCache 에 그대로 캐싱해도 된다.
+@Getter
+@AllArgsConstructor
+public class AccountCredentials {
+
+    private final Long id;
+
+    private final String email;
+
+    private final String nickname;
+
+    private final String password; // 인코딩된 비밀번호
+
+    private final boolean emailVerified;
+
+    private final boolean studyCreatedByEmail;
+
+    private final boolean studyCreatedByWeb;
+
+    private final boolean studyEnrollmentByEmail;
+
+    private final boolean studyEnrollmentByWeb;
+
+    private final boolean studyUpdatedByEmail;
+
+    private final boolean studyUpdatedByWeb;
+}
@@ -0,0 +1,57 @@
+package com.jinstudy.modules.account;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jinstudy.infra.config.AppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 로그인할 때 입력한 이메일 또는 닉네임 -> AccountCredentials.
+// remember-me 쿠키로 자동 로그인하는 요청이나 같은 사용자가 연달아 로그인할 때 DB를 다시 읽지 않도록 짧은 시간 동안만 캐싱한다.
+// 비밀번호, 닉네임, 알림 설정이 바뀌면 AccountService 가 바로 지운다. (이메일, 이전 닉네임, 새 닉네임 모두)
+// UserDetails(UserAccount) 를 캐싱하지 않는 이유: 인증이 끝나면 스프링 시큐리티가 UserDetails 의 비밀번호를 지운다. (eraseCredentials)
+@Component
+public class AccountCredentialsCache {
+
+    private static final String CACHE_NAME = "accountCredentials";
+
+    private final Cache<String, AccountCredentials> cache;
+
+    public AccountCredentialsCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(appProperties.getCache().getCredentialsMaximumSize())
+                .expireAfterWrite(appProperties.getCache().getCredentialsExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // loader 가 null 을 리턴하면(없는 사용자) 캐시에 저장하지 않는다.
+    public AccountCredentials get(String emailOrNickname, Function<String, AccountCredentials> loader) {
+        return cache.get(emailOrNickname, loader);
+    }
+
+    public void evict(String... emailsOrNicknames) {
+        List<String> keys = Arrays.stream(emailsOrNicknames).filter(Objects::nonNull).collect(Collectors.toList());
+        cache.invalidateAll(keys);
+
+        // StudyCache 와 같은 이유로 트랜잭션이 끝난 뒤에 한 번 더 지운다. (커밋 전에 다른 요청이 변경 전 값을 다시 캐싱할 수 있다.)
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+}
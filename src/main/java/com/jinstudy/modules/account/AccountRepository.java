@@ -1,11 +1,15 @@
 package com.jinstudy.modules.account;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 
 @Transactional(readOnly = true) // JpaRepository는 알아서 트렌젝션 처리가 되지만,  AccountRepository 내부의 내가 만든 메서드 때문에 Transactional 처리를 해 줘야한다.
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountRepositoryExtension {
     boolean existsByEmail(String email);
 
     boolean existsByNickname(String nickname);
@@ -13,6 +17,13 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     Account findByEmail(String email);
 
     Account findByNickname(String emailOrNickname);
+
+    // 로그인용. 이메일 또는 닉네임이 같은 계정을 쿼리 한 번으로 찾고, 엔티티 대신 로그인에 필요한 컬럼만 읽어온다.
+    // 한 사람의 이메일과 다른 사람의 닉네임이 같으면 두 개가 나올 수 있다. (AccountService 에서 이메일이 같은 계정을 먼저 사용)
+    @Query("select new com.jinstudy.modules.account.AccountCredentials(a.id, a.email, a.nickname, a.password, a.emailVerified, " +
+            "a.studyCreatedByEmail, a.studyCreatedByWeb, a.studyEnrollmentByEmail, a.studyEnrollmentByWeb, a.studyUpdatedByEmail, a.studyUpdatedByWeb) " +
+            "from Account a where a.email = :emailOrNickname or a.nickname = :emailOrNickname")
+    List<AccountCredentials> findCredentials(@Param("emailOrNickname") String emailOrNickname);
 }
 
 // 여기는 JPA 안들으니까 모르겠다...
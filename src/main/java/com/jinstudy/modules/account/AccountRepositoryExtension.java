@@ -0,0 +1,14 @@
+package com.jinstudy.modules.account;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface AccountRepositoryExtension {
+
+    // 관심 주제(tagIds) 중 하나 이상, 활동 지역(zoneIds) 중 하나 이상이 겹치고 새 스터디 알림을 받는 계정. id 가 afterId 보다 큰 계정을 id 순서로 limit 개까지
+    // 계정이 많아도 한 번에 메모리에 올리지 않도록 마지막 id 를 넘겨가면서 나눠서 읽는다.
+    List<StudyCreatedSubscriber> findStudyCreatedSubscribers(Collection<Long> tagIds, Collection<Long> zoneIds, long afterId, int limit);
+}
@@ -0,0 +1,43 @@
+package com.jinstudy.modules.account;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class AccountRepositoryExtensionImpl implements AccountRepositoryExtension {
+
+    // account_tags(tags_id, account_id), account_zones(zones_id, account_id) 인덱스로 태그, 지역에 해당하는 계정만 찾고
+    // account 는 primary key 순서로 읽기 때문에 계정 수가 많아도 전체 계정을 훑지 않는다.
+    private static final String SUBSCRIBERS_SQL = "select a.id, a.email, a.nickname, a.study_created_by_web, a.study_created_by_email, a.email_verified " +
+            "from account a " +
+            "where a.id > :afterId " +
+            "and (a.study_created_by_web = true or a.study_created_by_email = true) " +
+            "and a.id in (select t.account_id from account_tags t where t.tags_id in (:tagIds)) " +
+            "and a.id in (select z.account_id from account_zones z where z.zones_id in (:zoneIds)) " +
+            "order by a.id " +
+            "limit :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<StudyCreatedSubscriber> findStudyCreatedSubscribers(Collection<Long> tagIds, Collection<Long> zoneIds, long afterId, int limit) {
+        if(tagIds.isEmpty() || zoneIds.isEmpty()){
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("tagIds", tagIds)
+                .addValue("zoneIds", zoneIds)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(SUBSCRIBERS_SQL, params, (rs, rowNum) -> new StudyCreatedSubscriber(
+                rs.getLong("id"),
+                rs.getString("email"),
+                rs.getString("nickname"),
+                rs.getBoolean("study_created_by_web"),
+                rs.getBoolean("study_created_by_email") && rs.getBoolean("email_verified"))); // 인증하지 않은 이메일로는 보내지 않는다.
+    }
+}
@@ -1,47 +1,55 @@
 package com.jinstudy.modules.account;
 
 import com.jinstudy.infra.config.AppProperties;
+import com.jinstudy.modules.account.event.AccountInterestsChangedEvent;
 import com.jinstudy.modules.account.form.SignUpForm;
 import com.jinstudy.modules.tag.Tag;
 import com.jinstudy.modules.zone.Zone;
 import com.jinstudy.infra.mail.EmailMessage;
 import com.jinstudy.infra.mail.EmailService;
+import com.jinstudy.infra.mail.MailTemplate;
+import com.jinstudy.infra.mail.MailTemplates;
+import com.jinstudy.infra.image.ImageStore;
 import com.jinstudy.modules.account.form.Notifications;
 import com.jinstudy.modules.account.form.Profile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 
 import javax.validation.Valid;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 
 @Transactional
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class AccountService implements UserDetailsService {
+public class AccountService implements UserDetailsService, UserDetailsPasswordService {
 
     private final AccountRepository accountRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
     private final ModelMapper modelMapper;
-    private final TemplateEngine templateEngine;
+    private final MailTemplates mailTemplates;
     private final AppProperties appProperties;
+    private final ImageStore imageStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccountCredentialsCache credentialsCache;
 
 
     public Account processNewAccount(SignUpForm signUpForm) {
@@ -66,19 +74,20 @@ public class AccountService implements UserDetailsService {
                 .build();
          */
         account.generateEmailCheckToken();
+        credentialsCache.evict(account.getEmail(), account.getNickname()); // 같은 이름으로 캐싱된 (지워진) 계정이 남아있지 않도록
         return accountRepository.save(account);
     }
 
     public void sendSignUpConfirmEmail(Account newAccount) { // 이랗게 사용하면 local 환경, dev 환경에서 모두 동일한 코드로 사용할 수 있다. --> 추상화를 통해서 재사용이 가능해짐.
-        Context context = new Context();
-        context.setVariable("link","/check-email-token?token=" + newAccount.getEmailCheckToken() + "&email=" + newAccount.getEmail());
-        context.setVariable("nickname",newAccount.getNickname());
-        context.setVariable("linkName","이메일 인증하기");
-        context.setVariable("message","진 스터디를 사용하려면 링크를 클릭하세요 😺");
-//        context.setVariable("host","http://localhost:8080"); // 이렇게 하드코딩하면 안된다.
-        context.setVariable("host",appProperties.getHost()); // application.properties 에 지정한 값을 바인딩 받아서 가져온다.
-
-        String message = templateEngine.process("mail/simple-link", context); // view resolver가 알아서 prefix로 templates를 postfix로 .html을 붙혀준다.
+        // 템플릿은 한 번만 렌더링해서 캐싱하고, 사용자마다 바뀌는 닉네임과 링크만 끼워 넣는다. (MailTemplates)
+        MailTemplate template = mailTemplates.get("mail/simple-link", Map.of(
+                "linkName", "이메일 인증하기",
+                "message", "진 스터디를 사용하려면 링크를 클릭하세요 😺",
+                "host", appProperties.getHost()), // application.properties 에 지정한 값을 바인딩 받아서 가져온다.
+                "nickname", "link");
+        String message = template.render(Map.of(
+                "nickname", newAccount.getNickname(),
+                "link", "/check-email-token?token=" + newAccount.getEmailCheckToken() + "&email=" + newAccount.getEmail()));
 
         // EmailService로 추상화
         EmailMessage emailMessage = EmailMessage.builder().
@@ -99,26 +108,46 @@ public class AccountService implements UserDetailsService {
         securityContext.setAuthentication(token);
     }
 
-    @Transactional(readOnly = true)   // 읽기 전용 트랜잭션을 지정해줘서 write lock을 사용하지 않아서 성능에 더 유리하다.
+    // 캐시에 있으면 DB 커넥션이 필요 없기 때문에 트랜잭션을 열지 않는다. (캐시에 없을 때는 리포지토리의 읽기 전용 트랜잭션)
+    @Transactional(propagation = Propagation.SUPPORTS)
     @Override
     public UserDetails loadUserByUsername(String emailOrNickname) throws UsernameNotFoundException {
         // 데이터 베이스에 있는 정보를 통해서 인증을 하기 위해서 사용 UserDetailsService 인터페이스 구현
-        Account account = accountRepository.findByEmail(emailOrNickname);
-        if(account==null){
-            account = accountRepository.findByNickname(emailOrNickname);
-        }
-        if(account==null){
+        // 예전에는 findByEmail, findByNickname 으로 Account 엔티티를 최대 두 번 읽어왔다. -> 필요한 컬럼만 쿼리 한 번으로 읽고 잠깐 캐싱한다.
+        AccountCredentials credentials = credentialsCache.get(emailOrNickname, this::findCredentials);
+        if(credentials==null){
             throw new UsernameNotFoundException(emailOrNickname);
         }
-        return new UserAccount(account);  // Principal을 리턴해야한다.
+        return new UserAccount(credentials);  // Principal을 리턴해야한다. 인증이 끝나면 비밀번호가 지워지기 때문에 매번 새로 만든다.
+    }
+
+    private AccountCredentials findCredentials(String emailOrNickname) {
+        List<AccountCredentials> found = accountRepository.findCredentials(emailOrNickname);
+        return found.stream()
+                .filter(credentials -> emailOrNickname.equals(credentials.getEmail())) // 이메일이 같은 계정이 먼저 (예전과 같은 순서)
+                .findFirst()
+                .orElse(found.isEmpty() ? null : found.get(0));
+    }
+
+    // 로그인에 성공했는데 저장된 비밀번호의 인코딩 방식이나 bcrypt strength 가 지금 설정과 다르면 스프링 시큐리티가 새로 인코딩한 비밀번호로 호출한다.
+    // -> strength 를 올려도 사용자가 비밀번호를 다시 바꿀 필요 없이 로그인할 때 조금씩 새 strength 로 바뀐다.
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newEncodedPassword) {
+        Account account = accountRepository.findById(((UserAccount) user).getId())
+                .orElseThrow(() -> new UsernameNotFoundException(user.getUsername()));
+        account.setPassword(newEncodedPassword);
+        credentialsCache.evict(account.getEmail(), account.getNickname());
+        return new UserAccount(account);
     }
 
     public void completeSignUp(Account account) {
         account.completeSignUp();
+        credentialsCache.evict(account.getEmail(), account.getNickname());
     }
 
     public void updateProfile(Account account, Profile profile) {
 
+        profile.setProfileImage(imageStore.store(profile.getProfileImage())); // data URL 은 파일로 저장하고 URL 로 바꿔서 저장
         modelMapper.map(profile,account); //  source, destination
 
         //ModelMapper를 통해 간결한 코드로 객체의 매핑이 가능함.
@@ -128,17 +157,15 @@ public class AccountService implements UserDetailsService {
         //account.setBio(profile.getBio());
         //account.setProfileImage(profile.getProfileImage());
 
-        // 여기까지만 해서 될 것 같지만, 문제가 존재한다.  Spring MVC적인 문제 , Spring JPA적인 문제.
-        // 1. Spring MVC 문제는 컨트롤러 주석으로.
-        // 2. Spring JPA 문제, 이대로 했으면 DB에 반영이 안된다.  -> AccountService 클래스에서 Transaction 처리를 해줬는데 왜?
-        // 위의 completeSignUp 메서드에서 account 객체를 따라 가보면 account 객체는 persistant 객체이다. 컨트롤러 메서드가 시작할때 생긴 영속성 컨텍스트가 관리하는 상황에서 accountRepository를 통해서 가져온 account 객체이기 때문이다.
-        // 하지만 이 메서드에서 account를 따라가보면 @CurrentUser를 통해서 세션에서 받아온 유저 정보에 해당하기 때문에, 영속성 컨텍스트가 관리하는 객체가 아니고, 이전에 트랜잭션이 끝나버린 detached 객체이다.
+        // @CurrentUser 로 받은 account 는 CurrentUserArgumentResolver 가 요청마다 DB에서 읽어온 영속 상태의 객체라서 변경 감지로 반영된다.
+        // 세션의 Principal(UserAccount)에서 꺼낸 detached 객체가 넘어오던 때에는 save 로 merge 를 해줘야 했다.
         accountRepository.save(account); // save를 통해서 해당 정보를 DB에 업로드를 시켜 줘야한다.
     }
 
     public void updatePassword(Account account, String newPassword) {
         account.setPassword(passwordEncoder.encode(newPassword)); // 다시 새로운 패스워드를 저장할때도 인코딩을 해줘야한다.
         accountRepository.save(account);
+        credentialsCache.evict(account.getEmail(), account.getNickname()); // 이전 비밀번호로 로그인되지 않도록
     }
 
     public void updateNotifications(Account account, Notifications notifications) {
@@ -152,9 +179,12 @@ public class AccountService implements UserDetailsService {
         //account.setStudyUpdatedByEmail(notifications.isStudyUpdatedByEmail());
         //account.setStudyUpdatedByWeb(notifications.isStudyUpdatedByWeb());
         accountRepository.save(account);
+        credentialsCache.evict(account.getEmail(), account.getNickname()); // 자동 로그인할 때도 바뀐 알림 설정값으로
+        login(account); // Principal 에 알림 설정값도 복사해두기 때문에 새로 로그인 처리를 해서 갱신해준다.
     }
 
     public void updateNickname(Account account, String nickname) {
+        credentialsCache.evict(account.getEmail(), account.getNickname(), nickname); // 이전 닉네임으로 로그인되지 않도록
         account.setNickname(nickname);
         accountRepository.save(account);
         login(account);
@@ -163,12 +193,15 @@ public class AccountService implements UserDetailsService {
     public void sendLoginLink(Account account) {
         // account에 대한 영속성 컨텍스트가 존재하고, account는 persist한 객체가 된다.
 
-        Context context = new Context();
-        context.setVariable("link","/login-by-email?toekn=" + account.getEmailCheckToken() + "&email=" + account.getEmail());
-        context.setVariable("nickname",account.getNickname());
-        context.setVariable("linkName","이메일로 로그인하기");
-        context.setVariable("messge","진 스터디 로그인을 하시려면 링크를 클릭하세요 😺");
-        context.setVariable("host",appProperties.getHost());
+        // 예전에는 Context 를 만들어 놓고 링크 경로만 보냈다. (파라미터 이름도 token 이 아니라 toekn 이라서 로그인되지 않았다)
+        MailTemplate template = mailTemplates.get("mail/simple-link", Map.of(
+                "linkName", "이메일로 로그인하기",
+                "message", "진 스터디 로그인을 하시려면 링크를 클릭하세요 😺",
+                "host", appProperties.getHost()),
+                "nickname", "link");
+        String message = template.render(Map.of(
+                "nickname", account.getNickname(),
+                "link", "/login-by-email?token=" + account.getEmailCheckToken() + "&email=" + account.getEmail()));
 
         //TODO sendLoginLink 메서드 호출할 때마다 이메일 인증 토큰값을 새로 생성해줘야하지 않나?? -->  안그러면 이 이메일로 전송된 링크로 언제든지 로그인이 가능한데!
 
@@ -176,46 +209,41 @@ public class AccountService implements UserDetailsService {
         EmailMessage emailMessage = EmailMessage.builder()
                 .to(account.getEmail())
                 .subject("진스터디, 로그인 링크")
-                .message("/login-by-email?toekn=" + account.getEmailCheckToken() + "&email=" + account.getEmail())
+                .message(message)
                 .build();
         emailService.sendEmail(emailMessage);
     }
 
-    public void addTag(Account account, Tag tag) {
-
-        // detached한 account의 객체에 대해서는 @ManyToMany로 지정해놓은 부분이 인식이 안되어서 null이기 때문에 사용하면 nullPointException이 발생할 것이다.
-        // 영속성 컨텍스트가 관리하는 account에 대해서만 @ManyToMany 관계에 대해서 인식?? 하고 있을 것 이라고 생각함.  --> 매우 중요한 부분이 될 듯!
-
-        Optional<Account> byId = accountRepository.findById(account.getId()); //Optional 래퍼 클래스로
-        byId.ifPresent(a->a.getTags().add(tag));
-        // 여기서 살펴보면 매개변수로 받은 tag랑 tagRepository로 Tag DB에 저장한 객체가 동일하다.
-        // 동일한 객체이기 때문에 JPA와 데이터베이스를 통해서 서로 연동이 되는 것 같음!. -> 도메인 간의 관계를 맺을 수 있는 원리!!
+    // 아래 메서드들의 account 는 영속 상태의 객체라서 @ManyToMany 컬렉션을 바로 사용해도 된다. (지연 로딩)
+    // 예전에는 세션에서 꺼낸 detached 객체가 넘어와서 findById 로 다시 읽어와야 했다.
+    // 관심 주제, 활동 지역이 바뀌면 이벤트를 발행해서 이를 기준으로 만든 홈 화면 추천 목록을 다시 만들게 한다. (account 패키지는 study 패키지를 참조할 수 없다.)
 
+    public void addTag(Account account, Tag tag) {
+        account.getTags().add(tag);
+        eventPublisher.publishEvent(new AccountInterestsChangedEvent(account.getId()));
     }
 
     public Set<Tag> getTags(Account account) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        return byId.orElseThrow().getTags();
+        return account.getTags();
     }
 
     public void removeTag(Account account, Tag tag) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a->a.getTags().remove(tag));
+        account.getTags().remove(tag);
+        eventPublisher.publishEvent(new AccountInterestsChangedEvent(account.getId()));
     }
 
     public Set<Zone> getZones(Account account) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        return byId.orElseThrow().getZones();
+        return account.getZones();
     }
 
     public void addZone(Account account, Zone zone) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getZones().add(zone));
+        account.getZones().add(zone);
+        eventPublisher.publishEvent(new AccountInterestsChangedEvent(account.getId()));
     }
 
     public void removeZone(Account account, Zone zone) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getZones().remove(zone));
+        account.getZones().remove(zone);
+        eventPublisher.publishEvent(new AccountInterestsChangedEvent(account.getId()));
     }
 
     public Account getAccount(String nickname) {
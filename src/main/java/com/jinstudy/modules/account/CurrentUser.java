@@ -1,14 +1,14 @@
 package com.jinstudy.modules.account;
 
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+// @CurrentUser Account     -> 로그인한 사용자의 Account 엔티티 (DB에서 읽어온 영속 상태의 객체)
+// @CurrentUser UserAccount -> 세션에 저장된 Principal (DB 조회 없음)
+// 로그인하지 않은 경우에는 null. CurrentUserArgumentResolver 참고.
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.PARAMETER)
-@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : account")
 public @interface CurrentUser{
 }
@@ -0,0 +1,40 @@
+package com.jinstudy.modules.account;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+// 세션에는 가벼운 UserAccount 만 저장하고, 핸들러가 Account 엔티티를 필요로 할 때만 DB에서 읽어온다.
+// OSIV 덕분에 요청이 끝날 때까지 영속성 컨텍스트가 유지되기 때문에 여기서 읽어온 account 는 서비스 계층에서도 영속 상태이다. -> 서비스에서 다시 findById 할 필요가 없다.
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final AccountRepository accountRepository;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if(authentication == null || !(authentication.getPrincipal() instanceof UserAccount)){
+            return null; // 로그인하지 않은 사용자 (anonymousUser)
+        }
+
+        UserAccount userAccount = (UserAccount) authentication.getPrincipal();
+        if(parameter.getParameterType().isAssignableFrom(UserAccount.class)){
+            return userAccount;
+        }
+        return accountRepository.findById(userAccount.getId()).orElse(null);
+    }
+}
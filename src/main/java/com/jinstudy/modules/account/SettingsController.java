@@ -1,7 +1,5 @@
 package com.jinstudy.modules.account;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jinstudy.modules.account.form.NicknameForm;
 import com.jinstudy.modules.account.form.Notifications;
 import com.jinstudy.modules.account.form.PasswordForm;
@@ -13,7 +11,7 @@ import com.jinstudy.modules.tag.TagForm;
 import com.jinstudy.modules.tag.TagRepository;
 import com.jinstudy.modules.tag.TagService;
 import com.jinstudy.modules.zone.ZoneForm;
-import com.jinstudy.modules.zone.ZoneRepository;
+import com.jinstudy.modules.zone.ZoneService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -24,7 +22,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
-import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -54,8 +51,7 @@ public class SettingsController {
 
     private final AccountService accountService;
     private final TagRepository tagRepository;
-    private final ObjectMapper objectMapper;
-    private final ZoneRepository zoneRepository;
+    private final ZoneService zoneService;
     private final TagService tagService;
     private final AccountRepository accountRepository;
 
@@ -77,8 +73,15 @@ public class SettingsController {
             return SETTINGS + PROFILE;
         }
 
+        try {
+            accountService.updateProfile(account,profile); // Transaction 처리때문에 AccountService클래스 객체에 위임을 한다.
+        } catch (IllegalArgumentException e) { // 지원하지 않는 이미지 형식이면 500 대신 폼 에러로 돌려준다.
+            errors.rejectValue("profileImage", "wrong.value", e.getMessage());
+            profile.setProfileImage(account.getProfileImage()); // 화면에는 기존 이미지를 다시 보여준다.
+            model.addAttribute(account);
+            return SETTINGS + PROFILE;
+        }
         attributes.addFlashAttribute("message","프로필을 수정했습니다."); // 리다이렉트시에 간단한 정보를 넣어서 뷰에 전달할 수 있다.
-        accountService.updateProfile(account,profile); // Transaction 처리때문에 AccountService클래스 객체에 위임을 한다.
         return "redirect:" + ROOT + SETTINGS + PROFILE;
 
         // 여기서 발생하는 Spring MVC관련 이슈 -> Spring MVC는 @ModelAttribute로 받아오는 객체를 생성할때, 먼저 생성자를 통해서 인스턴스를 생성한 뒤, setter를 통해서 값을 주입하는 방식으로 동작한다.
@@ -148,7 +151,7 @@ public class SettingsController {
     }
 
     @GetMapping(TAGS)
-    public String updateTags(@CurrentUser Account account, Model model) throws JsonProcessingException {
+    public String updateTags(@CurrentUser Account account, Model model) {
         model.addAttribute(account);
         // detached 객체에 대해서는 @ManyToMany로 관계를 맺었기 떄문에, tags 필드에 대한 값이 null이다! 즉, 맺은 관계에 대해서 참조가 되지 않는다.
         // 그래서 persistent한 account 객체를 다시 생성할 필요가 있다.
@@ -158,10 +161,7 @@ public class SettingsController {
         // Java8 이후의 문법. 람다식과 스트림!!
         // tags의 정보들을 title에 해당하는 문자열들로 매핑하고, collector를 통해서 리스트로 만듦.
         model.addAttribute("tags",tags.stream().map(Tag::getTitle).collect(Collectors.toList()));
-        //tagify 자동완성에 사용될, 모든 태그 정보에 대한 문자열 포맷을 만들어서 뷰에 전달
-        List<String> allTags = tagRepository.findAll().stream().map(Tag::getTitle).collect(Collectors.toList());
-        model.addAttribute("whitelist", objectMapper.writeValueAsString(allTags)); //tagify에서 whitelist를 사용하기 위해서 List 객체를 JSON의 형태로
-
+        // tagify 자동완성은 입력할 때마다 /tags/suggest 로 요청한다. (모든 태그를 whitelist 로 페이지에 넣어주지 않는다.)
 
         return SETTINGS + TAGS;
     }
@@ -192,16 +192,14 @@ public class SettingsController {
     }
 
     @GetMapping(ZONES)
-    public String updateZonesForm(@CurrentUser Account account, Model model) throws JsonProcessingException {
+    public String updateZonesForm(@CurrentUser Account account, Model model) {
         model.addAttribute(account);
 
         // account 객체는 persist 객체가 아니다.
         // persist한 객체로부터 DB와 싱크를 통해서 zone에 대한 정보를 가져와야한다.
         Set<Zone> zones = accountService.getZones(account);
         model.addAttribute("zones",zones.stream().map(Zone::toString).collect(Collectors.toList())); // 지역정보들을 리스트로 매핑해서 뷰에 전달.
-
-         List<String> allZones = zoneRepository.findAll().stream().map(Zone::toString).collect(Collectors.toList());
-         model.addAttribute("whitelist", objectMapper.writeValueAsString(allZones)); // whitelist로 디비에 저장된 전체 지역정보를 뷰로 전달.
+        // 전체 지역 목록(whitelist)은 페이지에 넣지 않고 tagify 에서 /zones/whitelist 로 받아간다. (브라우저 캐시)
 
         return SETTINGS + ZONES;
     }
@@ -210,7 +208,7 @@ public class SettingsController {
     @PostMapping(ZONES + "/add")
     public ResponseEntity addZone(@CurrentUser Account account, @RequestBody ZoneForm zoneForm){
 
-        Zone zone = zoneRepository.findByCityAndProvince(zoneForm.getCityName(), zoneForm.getProvinceName());
+        Zone zone = zoneService.getCatalog().getZone(zoneForm.getZoneName()); // DB 대신 메모리의 ZoneCatalog 에서 찾는다.
 
         if(zone == null){
             return ResponseEntity.badRequest().build(); //태그와는 다르게 이때는 없으면 새로운 지역정보를 만들지 않는다.
@@ -222,7 +220,7 @@ public class SettingsController {
     @ResponseBody
     @PostMapping(ZONES + "/remove")
     public ResponseEntity removeZone(@CurrentUser Account account, @RequestBody ZoneForm zoneForm){
-        Zone zone = zoneRepository.findByCityAndProvince(zoneForm.getCityName(), zoneForm.getProvinceName());
+        Zone zone = zoneService.getCatalog().getZone(zoneForm.getZoneName());
 
         if(zone == null){
             return ResponseEntity.badRequest().build();
@@ -0,0 +1,20 @@
+package com.jinstudy.modules.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 새 스터디 알림을 받을 계정. 알림을 만들 때 필요한 컬럼만 읽어온다. (AccountRepositoryExtension)
+@Getter
+@AllArgsConstructor
+public class StudyCreatedSubscriber {
+
+    private final Long id;
+
+    private final String email;
+
+    private final String nickname;
+
+    private final boolean byWeb; // studyCreatedByWeb
+
+    private final boolean byEmail; // studyCreatedByEmail 이고 이메일을 인증한 계정
+}
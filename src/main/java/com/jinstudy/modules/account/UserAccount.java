@@ -7,14 +7,57 @@ import org.springframework.security.core.userdetails.User;
 import java.util.List;
 
 // 스프링 시큐리티에서 필요로 하는 account와 내가 생성한 도메인 account와 연동을 하기 위한 클래스  -> Principal로 객체로 사용할 클래스!
+// Principal 은 세션에 직렬화되어 저장되기 때문에 Account 엔티티 전체(이미지, tags, zones ...)를 들고 있지 않고 필요한 값만 복사해서 가지고 있는다.
+// Account 엔티티가 필요한 핸들러는 @CurrentUser Account 로 받으면 CurrentUserArgumentResolver 가 그때 DB에서 읽어온다.
 @Getter
 public class UserAccount extends User {
-    private Account account;
+
+    private final Long id;
+
+    private final String email;
+
+    private final boolean studyCreatedByEmail;
+
+    private final boolean studyCreatedByWeb;
+
+    private final boolean studyEnrollmentByEmail;
+
+    private final boolean studyEnrollmentByWeb;
+
+    private final boolean studyUpdatedByEmail;
+
+    private final boolean studyUpdatedByWeb;
 
     public UserAccount(Account account) {
         super(account.getNickname(), account.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
-        this.account = account;
+        this.id = account.getId();
+        this.email = account.getEmail();
+        this.studyCreatedByEmail = account.isStudyCreatedByEmail();
+        this.studyCreatedByWeb = account.isStudyCreatedByWeb();
+        this.studyEnrollmentByEmail = account.isStudyEnrollmentByEmail();
+        this.studyEnrollmentByWeb = account.isStudyEnrollmentByWeb();
+        this.studyUpdatedByEmail = account.isStudyUpdatedByEmail();
+        this.studyUpdatedByWeb = account.isStudyUpdatedByWeb();
     }
-}
 
+    // 로그인할 때 AccountCredentials 로 만든다. (AccountService.loadUserByUsername)
+    public UserAccount(AccountCredentials credentials) {
+        super(credentials.getNickname(), credentials.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        this.id = credentials.getId();
+        this.email = credentials.getEmail();
+        this.studyCreatedByEmail = credentials.isStudyCreatedByEmail();
+        this.studyCreatedByWeb = credentials.isStudyCreatedByWeb();
+        this.studyEnrollmentByEmail = credentials.isStudyEnrollmentByEmail();
+        this.studyEnrollmentByWeb = credentials.isStudyEnrollmentByWeb();
+        this.studyUpdatedByEmail = credentials.isStudyUpdatedByEmail();
+        this.studyUpdatedByWeb = credentials.isStudyUpdatedByWeb();
+    }
 
+    public String getNickname() {
+        return getUsername();
+    }
+
+    public boolean isAccountOf(Account account) {
+        return account != null && this.id != null && this.id.equals(account.getId());
+    }
+}
@@ -0,0 +1,12 @@
+package com.jinstudy.modules.account.event;
+
+import lombok.Getter;
+
+@Getter
+public class AccountInterestsChangedEvent {
+    private final Long accountId;
+
+    public AccountInterestsChangedEvent(Long accountId){ // 사용자의 관심 주제(tags) 또는 활동 지역(zones)이 바뀌었을 때 발생하는 이벤트
+        this.accountId = accountId;
+    }
+}
@@ -9,10 +9,17 @@ import lombok.Getter;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(
+        uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "account_id"}), // 같은 모임에 중복 신청(따닥)이 들어와도 하나만 저장된다.
+        indexes = @Index(name = "idx_enrollment_waiting", columnList = "event_id, accepted, enrolledAt") // 대기 목록을 신청 순서대로 읽어오기 위한 인덱스
+)
 @Getter @Setter @EqualsAndHashCode(of = "id")
 public class Enrollment {
 
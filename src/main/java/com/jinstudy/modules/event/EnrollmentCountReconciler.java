@@ -0,0 +1,78 @@
+package com.jinstudy.modules.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+// Event 의 acceptedCount, waitingCount 는 EventService 에서 신청/취소/승인/거절할 때마다 맞춰주지만
+// 직접 DB를 수정했거나 버그가 있었을 때 실제 신청 수와 달라질 수 있다. -> 주기적으로 enrollment 를 세서 다시 맞춰준다.
+// 애플리케이션이 뜰 때도 (웹 서버가 요청을 받기 전에) 아직 신청을 받는 모임의 카운터를 맞춘다.
+// accepted_count 컬럼이 새로 생긴 DB(ddl-auto=update)에서는 기존 모임이 모두 0으로 시작해서 SeatAllocator 가 모집 인원보다 많이 배정할 수 있다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EnrollmentCountReconciler implements SmartInitializingSingleton {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final EventRepository eventRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final SeatAllocator seatAllocator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconcileEnrollable();
+    }
+
+    @Scheduled(cron = "${app.event.count-reconcile-cron}")
+    public void reconcileAll() {
+        reconcile(lastId -> eventRepository.findIdsAfter(lastId, PageRequest.of(0, BATCH_SIZE)));
+    }
+
+    // 신청이 끝난 모임은 자리를 배정하지 않으니까 뜰 때는 신청 중인 모임만 맞춘다.
+    public void reconcileEnrollable() {
+        LocalDateTime now = LocalDateTime.now();
+        reconcile(lastId -> eventRepository.findEnrollableIdsAfter(lastId, now, PageRequest.of(0, BATCH_SIZE)));
+    }
+
+    private void reconcile(Function<Long, List<Long>> nextIds) {
+        long lastId = 0;
+        int fixed = 0;
+        List<Long> eventIds;
+        while(!(eventIds = nextIds.apply(lastId)).isEmpty()){
+            for(Long eventId : eventIds){
+                // 모임 하나씩 짧은 트랜잭션으로 처리해서 신청을 오래 막지 않는다.
+                if(Boolean.TRUE.equals(transactionTemplate.execute(status -> reconcile(eventId)))){
+                    fixed++;
+                }
+                lastId = eventId;
+            }
+        }
+        log.info("reconciled enrollment counts, {} events fixed", fixed);
+    }
+
+    // 카운터를 바꾸는 요청은 모두 event row 에 update 를 하니까, row 락을 먼저 잡고 세면 그 사이에 신청 수가 바뀌지 않는다.
+    boolean reconcile(Long eventId) {
+        Event event = eventRepository.findWithLockById(eventId);
+        if(event == null){
+            return false;
+        }
+        int accepted = (int) enrollmentRepository.countByEventAndAccepted(event, true);
+        int waiting = (int) enrollmentRepository.countByEventAndAccepted(event, false);
+        if(eventRepository.updateCounts(eventId, accepted, waiting) == 0){
+            return false;
+        }
+        log.warn("enrollment counts of event {} drifted, fixed to accepted={}, waiting={}", eventId, accepted, waiting);
+        seatAllocator.forget(event);
+        return true;
+    }
+}
@@ -1,10 +1,32 @@
 package com.jinstudy.modules.event;
 
 import com.jinstudy.modules.account.Account;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     boolean existsByEventAndAccount(Event event, Account account);
 
     Enrollment findByEventAndAccount(Event event, Account account);
+
+    // enrollments 를 모두 읽어와서 account 를 하나씩 비교하지 않고, 해당 사용자의 신청 상태만 한 번의 쿼리로 읽어온다.
+    @Query("select e.accepted as accepted, e.attended as attended from Enrollment e where e.event = :event and e.account.id = :accountId")
+    Optional<EnrollmentState> findStateByEventAndAccountId(@Param("event") Event event, @Param("accountId") Long accountId);
+
+    long countByEventAndAccepted(Event event, boolean accepted);
+
+    // (event, accepted, enrolledAt) 인덱스로 대기 목록의 앞에서부터 필요한 만큼만 읽는다.
+    @Query("select e.id from Enrollment e where e.event = :event and e.accepted = false order by e.enrolledAt, e.id")
+    List<Long> findWaitingEnrollmentIds(@Param("event") Event event, Pageable pageable);
+
+    @Modifying
+    @Query("update Enrollment e set e.accepted = true where e.id in :ids and e.accepted = false")
+    int acceptAllByIdIn(@Param("ids") Collection<Long> ids);
 }
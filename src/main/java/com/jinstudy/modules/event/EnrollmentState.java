@@ -0,0 +1,9 @@
+package com.jinstudy.modules.event;
+
+// 로그인한 사용자의 모임 신청 상태만 읽어오는 projection. 모임 화면의 참가 신청/취소 버튼을 보여줄 때 사용한다.
+public interface EnrollmentState {
+
+    boolean isAccepted();
+
+    boolean isAttended();
+}
@@ -1,22 +1,18 @@
 package com.jinstudy.modules.event;
 
 import com.jinstudy.modules.account.Account;
-import com.jinstudy.modules.account.UserAccount;
 import com.jinstudy.modules.study.Study;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.Hibernate;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
-@NamedEntityGraph(
-        name="Event.withEnrollments",
-        attributeNodes = @NamedAttributeNode("enrollments")
-)
 @Entity
 @Getter @Setter @EqualsAndHashCode(of = "id")
 public class Event {
@@ -44,6 +40,15 @@ public class Event {
 
     private Integer limitOfEnrollment; // null을 의미있는 값으로 사용하기 위해서 기본형이 아닌 래퍼 클래스를 사용
 
+    // 확정된 참여자 수. 동시에 여러 명이 신청해도 모집 인원을 넘지 않도록 SeatAllocator 가 조건부 update 쿼리로만 변경한다.
+    // 엔티티의 변경 감지로 덮어쓰면 다른 트랜잭션이 올려놓은 값이 사라질 수 있기 때문에 updatable = false.
+    @Column(columnDefinition = "integer default 0 not null", updatable = false)
+    private int acceptedCount;
+
+    // 대기중인 참여자 수. 목록 화면에서 enrollments 를 읽어오지 않고 인원을 보여주기 위해서 따로 저장해둔다. (EventService 에서 update 쿼리로 관리)
+    @Column(columnDefinition = "integer default 0 not null", updatable = false)
+    private int waitingCount;
+
     @Enumerated(EnumType.STRING) // Enumerated를 통해서 타입을 STRING으로 지정해줘야 DB에 문자열에 해당하는 값이 저장이 된다. 안그러면 ORDINAL 값이 저장이 되는데 이는 좋지않음.
     private EventType eventType;
 
@@ -61,32 +66,19 @@ public class Event {
     // 단순하게 OneToMany를 하게 되면 별도의 조인 테이블을 생성해버린다. mappedBy를 통해서 Enrollment 클래스(테이블)과 양방향 관계라는 것을 명시해줘야함.
     // 그래야 별도의 조인 테이블의 생성 없이 Enrollment 테이블에서 Event 테이블을 외래키로 참조하는 일반적인 형태의 관계가 형성이 됨.
 
-    public boolean isEnrollableFor(UserAccount userAccount){
-        return isNotClosed() && !isAttended(userAccount) && !isAlreadyEnrolled(userAccount);
-    }
+    // 아래 메서드들은 현재 사용자의 신청 상태(EnrollmentState)를 받는다. 신청하지 않은 경우에는 null.
+    // 예전처럼 enrollments 를 돌면서 account 를 비교하면 화면을 그릴 때마다 모든 신청자를 읽어야 했다.
 
-    public boolean isDisenrollableFor(UserAccount userAccount){
-        return isNotClosed() && !isAttended(userAccount) && isAlreadyEnrolled(userAccount);
+    public boolean isEnrollableFor(EnrollmentState enrollment){
+        return isNotClosed() && enrollment == null;
     }
 
-    public boolean isAttended(UserAccount userAccount){
-        Account account = userAccount.getAccount();
-        for(Enrollment e : this.enrollments){
-            if(e.getAccount().equals(account) && e.isAttended()){
-                return true;
-            }
-        }
-        return false;
+    public boolean isDisenrollableFor(EnrollmentState enrollment){
+        return isNotClosed() && enrollment != null && !enrollment.isAttended();
     }
 
-    private boolean isAlreadyEnrolled(UserAccount userAccount) {
-        Account account = userAccount.getAccount();
-        for(Enrollment e : this.enrollments){
-            if(e.getAccount().equals(account)){
-                return true;
-            }
-        }
-        return false;
+    public boolean isAttended(EnrollmentState enrollment){
+        return enrollment != null && enrollment.isAttended();
     }
 
     private boolean isNotClosed() {
@@ -94,11 +86,7 @@ public class Event {
     }
 
     public int numberOfRemainSpots(){
-        return this.limitOfEnrollment - (int)this.enrollments.stream().filter(Enrollment::isAccepted).count();
-    }
-
-    public long getAcceptedEnrollments() {
-        return this.enrollments.stream().filter(Enrollment::isAccepted).count();
+        return this.limitOfEnrollment - this.acceptedCount;
     }
 
     public void addEnrollment(Enrollment newEnrollment) {
@@ -121,42 +109,17 @@ public class Event {
                 && !enrollment.isAttended();
     }
 
-    public boolean isAbleToAcceptWaitingEnrollment() {
-        // 참여 방법이 선착순이고, 참여 가능 인원이 현재 accepted된 사용자의 수보다 아직 많을 때 -> true : 바로 신청이 가능한 상태이다.
-        return this.eventType == EventType.FCFS && this.limitOfEnrollment > this.getAcceptedEnrollments();
-    }
-
     public void removeEnrollment(Enrollment enrollment) {
-        this.getEnrollments().remove(enrollment);
-        enrollment.setEvent(null);
-    }
-
-    public void acceptNextWaitingEnrollment() {
-        if(this.isAbleToAcceptWaitingEnrollment()){
-            Enrollment nextEnrollment = this.getTheFirstWaitingEnrollment();
-            if(nextEnrollment!=null){
-                nextEnrollment.setAccepted(true);
-            }
+        if(Hibernate.isInitialized(this.enrollments)){ // 신청 하나를 지우려고 모든 신청을 읽어오지 않도록, 이미 읽어온 경우에만 목록에서 뺀다.
+            this.enrollments.remove(enrollment);
         }
+        enrollment.setEvent(null);
     }
 
-    private Enrollment getTheFirstWaitingEnrollment() {
-        for(Enrollment e : this.enrollments){
-            if(!e.isAccepted())  return e;
-        }
-        return null;
-    }
-
-    public void acceptWaitingList() {
-        if(this.isAbleToAcceptWaitingEnrollment()){
-            // 만약 빈자리가 대기중인 참여자보다 많을 경우에는 대기중인 참여자 모두 확정상태로, 반대의 경우에는 빈자리 만큼만!
-            var waitingList = this.getWaitingList();
-            int numberToAccept = (int)Math.min(waitingList.size(), this.limitOfEnrollment-this.getAcceptedEnrollments());
-            waitingList.subList(0,numberToAccept).forEach(e -> e.setAccepted(true));
+    // update 쿼리로 확정한 신청을 이미 읽어온 목록에도 반영한다.
+    public void acceptEnrollments(Collection<Long> enrollmentIds) {
+        if(Hibernate.isInitialized(this.enrollments)){
+            this.enrollments.stream().filter(e -> enrollmentIds.contains(e.getId())).forEach(e -> e.setAccepted(true));
         }
     }
-
-    private List<Enrollment> getWaitingList() {
-        return this.getEnrollments().stream().filter(e -> !e.isAccepted()).collect(Collectors.toList());
-    }
 }
@@ -29,6 +29,7 @@ public class EventController {
     private final ModelMapper modelMapper;
     private final EventValidator eventValidator;
     private final EventRepository eventRepository;
+    private final EnrollmentRepository enrollmentRepository;
 
     @InitBinder("eventForm")
     public void initBinder(WebDataBinder webDataBinder){
@@ -67,6 +68,8 @@ public class EventController {
         model.addAttribute(account);
         model.addAttribute(study);
         model.addAttribute(event);
+        model.addAttribute("myEnrollment", account == null ? null :
+                enrollmentRepository.findStateByEventAndAccountId(event, account.getId()).orElse(null)); // 신청하지 않았으면 null
 
         return "event/view";
     }
@@ -76,6 +79,7 @@ public class EventController {
         Study study = studyService.getStudy(path); // 스터디에 해당하는 정보를 모두 가져와야하기 때문에 해당 전체 쿼리를 요청하는 메서드가 알맞다.
         model.addAttribute(account);
         model.addAttribute(study);
+        model.addAttribute("studyMember", studyService.isMember(study, account));
 
         List<Event> events = eventRepository.findByStudyOrderByStartDateTime(study);
         List<Event> newEvents = new ArrayList<>();
@@ -100,6 +104,8 @@ public class EventController {
         model.addAttribute(account);
         model.addAttribute(study);
         model.addAttribute(event);
+        model.addAttribute("myEnrollment", account == null ? null :
+                enrollmentRepository.findStateByEventAndAccountId(event, account.getId()).orElse(null)); // 신청하지 않았으면 null
         model.addAttribute(modelMapper.map(event,EventForm.class));
         return "event/update-form"; // 수정하는 폼은
     }
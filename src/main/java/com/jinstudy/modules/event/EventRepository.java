@@ -1,15 +1,60 @@
 package com.jinstudy.modules.event;
 
 import com.jinstudy.modules.study.Study;
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Transactional(readOnly = true)
 public interface EventRepository extends JpaRepository<Event, Long> {
 
-    @EntityGraph(value = "Event.withEnrollments", type = EntityGraph.EntityGraphType.LOAD)
+    // 목록 화면은 acceptedCount 로 남은 자리를 보여주기 때문에 enrollments 를 같이 읽어오지 않아도 된다.
     List<Event> findByStudyOrderByStartDateTime(Study study);
+
+    // 모집 인원을 넘지 않을 때만 확정 인원을 늘린다. 업데이트된 row 수가 0이면 자리가 없는 것.
+    // DB가 row 락을 잡고 조건을 다시 확인하기 때문에 동시에 여러 요청이 들어와도 모집 인원을 넘을 수 없다.
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.acceptedCount = e.acceptedCount + :seats where e.id = :id and e.acceptedCount + :seats <= e.limitOfEnrollment")
+    int increaseAcceptedCount(@Param("id") Long id, @Param("seats") int seats);
+
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.acceptedCount = e.acceptedCount - :seats where e.id = :id and e.acceptedCount >= :seats")
+    int decreaseAcceptedCount(@Param("id") Long id, @Param("seats") int seats);
+
+    @Query("select e.acceptedCount from Event e where e.id = :id")
+    int findAcceptedCountById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.waitingCount = e.waitingCount + :delta where e.id = :id")
+    int addWaitingCount(@Param("id") Long id, @Param("delta") int delta);
+
+    // 카운터가 실제 신청 수와 다를 때만 바꾸고, 바뀐 row 수를 리턴한다.
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.acceptedCount = :accepted, e.waitingCount = :waiting " +
+            "where e.id = :id and (e.acceptedCount <> :accepted or e.waitingCount <> :waiting)")
+    int updateCounts(@Param("id") Long id, @Param("accepted") int accepted, @Param("waiting") int waiting);
+
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Event e where e.id = :id")
+    Event findWithLockById(@Param("id") Long id);
+
+    @Query("select e.id from Event e where e.id > :lastId order by e.id")
+    List<Long> findIdsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    // 아직 신청을 받는 모임
+    @Query("select e.id from Event e where e.id > :lastId and e.endEnrollmentDateTime > :now order by e.id")
+    List<Long> findEnrollableIdsAfter(@Param("lastId") Long lastId, @Param("now") LocalDateTime now, Pageable pageable);
 }
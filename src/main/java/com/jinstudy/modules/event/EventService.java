@@ -5,10 +5,14 @@ import com.jinstudy.modules.event.form.EventForm;
 import com.jinstudy.modules.study.Study;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @Transactional
@@ -18,6 +22,8 @@ public class EventService {
     private final EventRepository eventRepository;
     private final ModelMapper modelMapper;
     private final EnrollmentRepository enrollmentRepository;
+    private final SeatAllocator seatAllocator;
+    private final EntityManager entityManager;
 
     public Event createEvent(Event event, Study study, Account account) {
         event.setStudy(study);
@@ -29,7 +35,7 @@ public class EventService {
     public void updateEvent(Event event, EventForm eventForm) {
         modelMapper.map(eventForm,event); // event 객체는 persist 객체이기 때문!
 
-        event.acceptWaitingList(); // 선착순 모임의 경우 모집 인원을 늘리면 대기상태의 인원들을 그만큼 확정상태로 변경해주어야한다.
+        acceptWaitingList(event); // 선착순 모임의 경우 모집 인원을 늘리면 대기상태의 인원들을 그만큼 확정상태로 변경해주어야한다.
     }
 
     public void deleteEvent(Event event) {
@@ -41,30 +47,81 @@ public class EventService {
             Enrollment newEnrollment = new Enrollment();
             newEnrollment.setEnrolledAt(LocalDateTime.now());
             newEnrollment.setAccount(account);
-            newEnrollment.setAccepted(event.isAbleToAcceptWaitingEnrollment()); // Event가 선착순 참여인지 관리자 확인 참여인지 판단 후 accepted를 설정.
+            // 선착순 모임이면 SeatAllocator 에서 자리를 잡았을 때만 확정. 동시에 신청이 몰려도 모집 인원을 넘지 않는다.
+            newEnrollment.setAccepted(event.getEventType() == EventType.FCFS && seatAllocator.tryAcquire(event));
+            if(!newEnrollment.isAccepted()){
+                changeWaitingCount(event, 1);
+            }
             event.addEnrollment(newEnrollment);
             enrollmentRepository.save(newEnrollment);
         }
     }
 
     public void cancelEnrollment(Event event, Account account) {
+        // 취소와 대기자 확정이 동시에 일어나도 꼬이지 않도록 event row 락을 먼저 잡고, 그 다음에 신청 정보를 읽는다.
+        // (락을 잡기 전에 읽으면 그 사이에 다른 요청이 이 신청을 확정상태로 바꿨을 수 있다.)
+        // 락을 잡는 조회 쿼리는 이미 영속성 컨텍스트에 있는 event 를 새 값으로 바꾸지 않기 때문에 refresh 로 락과 함께 다시 읽는다.
+        // (락을 잡기 전에 읽은 acceptedCount 로 빈자리를 계산하면 자리가 있어도 대기자를 확정하지 않을 수 있다.)
+        entityManager.flush(); // refresh 는 아직 DB에 쓰지 않은 변경을 버린다.
+        entityManager.refresh(event, LockModeType.PESSIMISTIC_WRITE);
+
         // Enrollment 삭제 -> 연관관계 끊고, Repository를 통해서 해당 Enrollment 삭제.
         Enrollment enrollment = enrollmentRepository.findByEventAndAccount(event,account);
         event.removeEnrollment(enrollment); //연관관계 제거
         enrollmentRepository.delete(enrollment);
-        event.acceptNextWaitingEnrollment(); // 만약 확정상태인 참여자가 빠져나간것이면, 대기상태에 있는 사람 중 한명을 확정상태로 변경해줘야함.
+        if(enrollment.isAccepted()){
+            seatAllocator.release(event, 1);
+            acceptWaitingList(event); // 확정상태인 참여자가 빠져나간것이면, 대기상태에 있는 사람 중 한명을 확정상태로 변경해줘야함.
+        }
+        else{
+            changeWaitingCount(event, -1);
+        }
+    }
+
+    private void acceptWaitingList(Event event) {
+        int remainSpots = event.numberOfRemainSpots();
+        if(event.getEventType() != EventType.FCFS || remainSpots <= 0){
+            return;
+        }
+        // 빈자리가 대기중인 참여자보다 많을 경우에는 대기중인 참여자 모두 확정상태로, 반대의 경우에는 빈자리 만큼만!
+        List<Long> candidates = enrollmentRepository.findWaitingEnrollmentIds(event, PageRequest.of(0, remainSpots));
+        if(candidates.isEmpty()){
+            return;
+        }
+        int seats = seatAllocator.acquire(event, candidates.size());
+        if(seats == 0){
+            return;
+        }
+
+        // 자리를 잡으면서 event row 락을 잡았기 때문에 이제부터는 다른 요청이 대기 목록을 바꿀 수 없다. 그 사이에 취소된 신청이 있을 수 있으니 다시 읽는다.
+        List<Long> waitingIds = enrollmentRepository.findWaitingEnrollmentIds(event, PageRequest.of(0, seats));
+        int accepted = waitingIds.isEmpty() ? 0 : enrollmentRepository.acceptAllByIdIn(waitingIds); // 한 번의 update 쿼리로 확정
+        seatAllocator.release(event, seats - accepted);
+        event.acceptEnrollments(waitingIds);
+        changeWaitingCount(event, -accepted);
     }
 
     public void acceptEnrollment(Event event, Enrollment enrollment) {
-        if(event.getEventType() == EventType.CONFIRMATIVE && event.getLimitOfEnrollment() > event.getAcceptedEnrollments()){
+        if(event.getEventType() == EventType.CONFIRMATIVE && !enrollment.isAccepted() && seatAllocator.tryAcquire(event)){
             enrollment.setAccepted(true);
+            changeWaitingCount(event, -1);
         }
     }
 
     public void rejectEnrollment(Event event, Enrollment enrollment) {
-        if(event.getEventType()==EventType.CONFIRMATIVE){
+        if(event.getEventType()==EventType.CONFIRMATIVE && enrollment.isAccepted()){
             enrollment.setAccepted(false);
+            seatAllocator.release(event, 1);
+            changeWaitingCount(event, 1);
+        }
+    }
+
+    private void changeWaitingCount(Event event, int delta) {
+        if(delta == 0){
+            return;
         }
+        eventRepository.addWaitingCount(event.getId(), delta);
+        event.setWaitingCount(event.getWaitingCount() + delta); // update 쿼리는 영속성 컨텍스트의 엔티티에 반영되지 않으니까 맞춰준다.
     }
 
     public void checkInEnrollment(Enrollment enrollment) {
@@ -0,0 +1,132 @@
+package com.jinstudy.modules.event;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 선착순 모임의 자리를 배정한다.
+// 1. 메모리에 모임별로 확정 인원 카운터(AtomicInteger)를 두고 CAS로 자리를 먼저 잡는다. -> 자리가 다 찼으면 DB에 가지 않고 O(1)로 거절.
+// 2. 메모리에서 자리를 잡았으면 DB의 조건부 update(acceptedCount + n <= limitOfEnrollment)로 한 번 더 확인한다. -> 최종 판단은 DB 기준.
+// 메모리 카운터는 서버마다 따로 가지고 있는 값이라 DB보다 작을 수 있고(그래서 DB에서 거절되면 다시 맞춘다),
+// 메모리에서 잡았지만 아직 커밋되지 않은 자리만큼 DB보다 클 수도 있다. (update 가 실패하거나 트랜잭션이 롤백되면 되돌린다)
+// 어느 쪽이든 최종 판단은 DB의 조건부 update 라서 모집 인원을 넘게 배정하지는 않는다.
+@Component
+@RequiredArgsConstructor
+public class SeatAllocator {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final EventRepository eventRepository;
+
+    // 모임이 끝나면 더이상 쓰이지 않기 때문에 일정 시간 사용하지 않은 카운터는 버리고, 필요할 때 DB 값으로 다시 만든다.
+    private final Cache<Long, AtomicInteger> acceptedCounts = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    public boolean tryAcquire(Event event) {
+        return acquire(event, 1) == 1;
+    }
+
+    // 최대 seats 개의 자리를 잡고, 실제로 잡은 자리의 수를 리턴한다.
+    public int acquire(Event event, int seats) {
+        if(seats <= 0 || event.getLimitOfEnrollment() == null){
+            return 0;
+        }
+
+        AtomicInteger accepted = counterOf(event);
+        for(int attempt = 0; attempt < MAX_ATTEMPTS; attempt++){
+            int reserved = reserve(accepted, event.getLimitOfEnrollment(), seats);
+            if(reserved == 0){
+                return 0;
+            }
+            try {
+                if(eventRepository.increaseAcceptedCount(event.getId(), reserved) == 1){
+                    event.setAcceptedCount(event.getAcceptedCount() + reserved); // update 쿼리는 영속성 컨텍스트의 엔티티에 반영되지 않으니까 화면에 보여줄 값도 맞춰준다.
+                    // 트랜잭션이 롤백되면 DB 값도 원래대로 돌아가니까 메모리 카운터도 되돌린다.
+                    afterRollback(() -> accepted.addAndGet(-reserved));
+                    return reserved;
+                }
+                // 메모리 카운터가 DB보다 작았던 경우 (다른 서버에서 자리를 가져갔거나, 카운터가 만들어진 뒤 커밋된 신청이 있는 경우)
+                accepted.set(eventRepository.findAcceptedCountById(event.getId()));
+            } catch (RuntimeException e) {
+                // 락 대기 시간 초과, 데드락, 커넥션 끊김 등으로 DB 에서 자리를 잡지 못했다. 메모리에서 잡은 자리를 돌려주지 않으면
+                // 카운터가 DB보다 큰 채로 남아서 (자주 쓰는 카운터는 만료되지도 않는다) 빈자리가 있는데도 계속 거절한다.
+                accepted.addAndGet(-reserved);
+                throw e;
+            }
+        }
+        return 0;
+    }
+
+    public void release(Event event, int seats) {
+        if(seats <= 0){
+            return;
+        }
+        if(eventRepository.decreaseAcceptedCount(event.getId(), seats) == 0){
+            return; // DB 값이 이미 seats 보다 작다. (직접 고쳤거나 EnrollmentCountReconciler 가 맞춘 경우) 메모리 카운터도 줄이지 않는다.
+        }
+        event.setAcceptedCount(Math.max(0, event.getAcceptedCount() - seats));
+        // 메모리 카운터는 바로 줄인다. 커밋 전에 다른 요청이 이 자리를 잡으려고 하면 DB의 조건부 update 가 event row 락을 기다렸다가
+        // 커밋된 값으로 다시 판단하기 때문에 괜찮다. (커밋 후에 줄이면 그 사이에 신청한 사람은 자리가 있는데도 대기 상태가 된다.)
+        AtomicInteger accepted = acceptedCounts.getIfPresent(event.getId());
+        if(accepted != null){
+            accepted.addAndGet(-seats);
+            afterRollback(() -> accepted.addAndGet(seats));
+        }
+    }
+
+    // DB 값이 바뀌었을 때(EnrollmentCountReconciler) 메모리 카운터를 버리고 다음에 DB 값으로 다시 만든다.
+    public void forget(Event event) {
+        afterCommit(() -> acceptedCounts.invalidate(event.getId()));
+    }
+
+    private AtomicInteger counterOf(Event event) {
+        return acceptedCounts.get(event.getId(), id -> new AtomicInteger(eventRepository.findAcceptedCountById(id)));
+    }
+
+    private int reserve(AtomicInteger accepted, int limit, int seats) {
+        while(true){
+            int current = accepted.get();
+            int reserved = Math.min(seats, limit - current);
+            if(reserved <= 0){
+                return 0;
+            }
+            if(accepted.compareAndSet(current, current + reserved)){
+                return reserved;
+            }
+        }
+    }
+
+    private void afterRollback(Runnable runnable) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if(status != STATUS_COMMITTED){
+                        runnable.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private void afterCommit(Runnable runnable) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            });
+        }
+        else{
+            runnable.run();
+        }
+    }
+}
@@ -49,7 +49,7 @@ public class EventValidator implements Validator {
     // 메서드를 읽고 대략적으로 어떤 기능을 하는지 보고, 실제 내용은 메서드의 구현부를 보면된다.
 
     public void validateUpdateForm(EventForm eventForm, Event event, Errors errors) {
-        if(eventForm.getLimitOfEnrollment() < event.getAcceptedEnrollments()){
+        if(eventForm.getLimitOfEnrollment() < event.getAcceptedCount()){
             errors.rejectValue("limitOfEnrollment","wrong.value","확인된 참가 신청보다 모집 인원 수가 커야 합니다.");
         }
     }
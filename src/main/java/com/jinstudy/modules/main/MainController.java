@@ -2,17 +2,24 @@ package com.jinstudy.modules.main;
 
 import com.jinstudy.modules.account.CurrentUser;
 import com.jinstudy.modules.account.Account;
+import com.jinstudy.modules.study.StudyService;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
+@RequiredArgsConstructor
 @Controller
 public class MainController {
 
+    private final StudyService studyService;
+
     @GetMapping("/")
     public String home(@CurrentUser Account account, Model model){ // 매개변수로 들어오는 account 의 값이 null이거나 아니면 실제 Account의 인스턴스 이거나.  -> 애노테이션을 통해서 지정
-        if(account!=null)
+        if(account!=null) {
             model.addAttribute(account);
+            model.addAttribute("studyList", studyService.getStudyFeed(account)); // 관심 주제, 활동 지역 기준 추천 스터디
+        }
 
         return "index";
     }
@@ -0,0 +1,13 @@
+package com.jinstudy.modules.notification;
+
+import com.jinstudy.modules.account.Account;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationRepositoryExtension {
+
+    List<Notification> findByAccountOrderByCreatedLocalDateTimeDesc(Account account);
+}
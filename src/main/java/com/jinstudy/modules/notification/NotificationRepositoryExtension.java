@@ -0,0 +1,15 @@
+package com.jinstudy.modules.notification;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Transactional(readOnly = true)
+public interface NotificationRepositoryExtension {
+
+    // 같은 알림(제목, 링크, 메시지)을 여러 계정에게. 엔티티를 만들지 않고 JDBC batch 로 넣는다.
+    @Transactional
+    void insertAll(NotificationType notificationType, String title, String link, String message, LocalDateTime createdDateTime,
+                   Collection<Long> accountIds);
+}
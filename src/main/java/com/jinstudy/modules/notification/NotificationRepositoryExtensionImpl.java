@@ -0,0 +1,34 @@
+package com.jinstudy.modules.notification;
+
+import com.jinstudy.infra.jpa.IdSequences;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class NotificationRepositoryExtensionImpl implements NotificationRepositoryExtension {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void insertAll(NotificationType notificationType, String title, String link, String message, LocalDateTime createdDateTime,
+                          Collection<Long> accountIds) {
+        if(accountIds.isEmpty()){
+            return;
+        }
+        String sql = "insert into notification (id, title, link, message, checked, account_id, created_local_date_time, notification_type) " +
+                "values (" + IdSequences.nextValueExpression(entityManagerFactory, Notification.class) + ", ?, ?, ?, false, ?, ?, ?)";
+        Timestamp createdAt = Timestamp.valueOf(createdDateTime);
+        List<Object[]> args = accountIds.stream()
+                .map(accountId -> new Object[]{title, link, message, accountId, createdAt, notificationType.name()})
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(sql, args);
+    }
+}
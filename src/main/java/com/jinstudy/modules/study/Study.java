@@ -15,11 +15,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-@NamedEntityGraph(name="Study.withAll", attributeNodes = {
-        @NamedAttributeNode("tags"),
-        @NamedAttributeNode("zones"),
-        @NamedAttributeNode("members"),
-        @NamedAttributeNode("managers")})
 @NamedEntityGraph(name="Study.withTagsAndManagers",attributeNodes = {
         @NamedAttributeNode("tags"),
         @NamedAttributeNode("managers")})
@@ -28,11 +23,9 @@ import java.util.stream.Collectors;
         @NamedAttributeNode("managers")})
 @NamedEntityGraph(name="Study.withManagers",attributeNodes = {
         @NamedAttributeNode("managers")})
-@NamedEntityGraph(name="Study.withMembers",attributeNodes = {
-        @NamedAttributeNode("members")})
-@NamedEntityGraph(name="Study.withMembersAndManagers", attributeNodes = {
-        @NamedAttributeNode("members"),
-        @NamedAttributeNode("managers")})
+@NamedEntityGraph(name="Study.withTagsAndZones",attributeNodes = {
+        @NamedAttributeNode("tags"),
+        @NamedAttributeNode("zones")})
 @Entity
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder @AllArgsConstructor @NoArgsConstructor
@@ -44,7 +37,7 @@ public class Study {
     @ManyToMany
     private Set<Account> managers = new HashSet<>();
 
-    @ManyToMany
+    @ManyToMany // 조인 테이블(study_members)의 primary key 가 (study_id, members_id) 라서 같은 구성원이 두 번 저장될 수 없다.
     private Set<Account> members = new HashSet<>();
 
     @ManyToMany
@@ -63,8 +56,7 @@ public class Study {
     @Lob @Basic(fetch = FetchType.EAGER)
     private String fullDescription;
 
-    @Lob @Basic(fetch = FetchType.EAGER)
-    private String image;
+    private String image; // 이미지 자체는 ImageStore 에 저장하고, 여기에는 이미지 URL만 저장한다.
 
     private LocalDateTime publishedDateTime;
 
@@ -72,6 +64,8 @@ public class Study {
 
     private LocalDateTime recruitingUpdateDateTime;
 
+    private Long notifiedAccountId; // 새 스터디 알림을 어느 계정(id)까지 넣었는지. 알림을 넣다가 실패해서 다시 받으면 여기서부터 이어서 넣는다.
+
     private boolean recruiting;
 
     private boolean published;
@@ -80,46 +74,26 @@ public class Study {
 
     private boolean useBanner;
 
+    @Transient
+    private Long memberCount; // members 를 읽어오지 않는 조회(findStudyToViewByPath)에서 count 쿼리로 채워준다.
+
     // 스터디 개설할때, 개설하면서 스터디 매니저로 등록.
     public void addManager(Account account) {
         this.managers.add(account);
     }
 
-    public void addMember(Account account) {
-        if(this.published && !this.closed && this.recruiting && !this.managers.contains(account) && !this.members.contains(account)){
-            this.members.add(account);
-        }
-        else {
-            throw new RuntimeException("스터디에 가입할 수 없습니다. 이미 가입한 스터디인지 또는 스터디가 가입 가능한 상태인지 확인하세요.");
-        }
+    // 가입, 탈퇴가 가능한 상태인지. 구성원 여부는 StudyService 에서 exists 쿼리로 확인한다.
+    public boolean canJoin() {
+        return this.published && !this.closed && this.recruiting;
     }
 
-    public void removeMember(Account account) {
-        if(!this.closed && this.members.contains(account)){
-            this.members.remove(account);
-        }
-        else{
-            throw new RuntimeException("스터디를 탈퇴할 수 없습니다. 스터디가 이미 종료 되었거나, 스터디에 참여 중이 아닐 수 있습니다.");
-        }
-    }
-
-
-    // 타임리프에서 조건을 위해서 사용
-    public boolean isJoinable(UserAccount userAccount){
-        Account account = userAccount.getAccount();
-        return this.isPublished() && this.isRecruiting() && !this.members.contains(account) && !this.managers.contains(account);
-    }
-
-    // 타임리프에서 조건을 위해서 사용
-    public boolean isMember(UserAccount userAccount){
-        Account account = userAccount.getAccount();
-        return this.members.contains(account);
+    public boolean canLeave() {
+        return !this.closed;
     }
 
     // 타임리프에서 조건을 위해서 사용
     public boolean isManager(UserAccount userAccount){
-        Account account = userAccount.getAccount();
-        return this.managers.contains(account);
+        return this.managers.stream().anyMatch(userAccount::isAccountOf);
     }
 
     public boolean canPublish() {
@@ -199,6 +173,10 @@ public class Study {
        return this.managers.contains(account);
     }
 
+    public long getMemberCount() {
+        return this.memberCount != null ? this.memberCount : this.members.size();
+    }
+
     public List<String> getManagersName(){
         return this.managers.stream().map(Account :: getNickname).collect(Collectors.toList());
     }
@@ -0,0 +1,57 @@
+package com.jinstudy.modules.study;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jinstudy.infra.config.AppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 스터디 페이지, 모임 페이지에서 매번 같은 스터디를 다시 조회하지 않도록 path 를 키로 Study 를 캐싱한다.
+// 캐시에 들어가는 Study 는 영속성 컨텍스트에서 분리된(detached) 조회 전용 객체이다. 수정이 필요한 곳에서는 사용하면 안된다.
+@Component
+public class StudyCache {
+
+    private static final String CACHE_NAME = "studies";
+
+    private final Cache<String, Study> cache;
+
+    public StudyCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(appProperties.getCache().getStudyMaximumSize())
+                .expireAfterWrite(appProperties.getCache().getStudyExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME); // cache.gets{result=hit|miss}, cache.evictions ...
+    }
+
+    public Study get(String path, Function<String, Study> loader) {
+        // 같은 키에 대한 로딩은 하나만 수행되고, 로딩 중인 키에 대한 invalidate 는 로딩이 끝날 때 까지 기다린다.
+        // loader 가 null 을 리턴하면 캐시에 저장하지 않는다.
+        return cache.get(path, loader);
+    }
+
+    public void evict(String... paths) {
+        List<String> keys = Arrays.stream(paths).filter(Objects::nonNull).collect(Collectors.toList());
+        cache.invalidateAll(keys);
+
+        // 트랜잭션이 커밋되기 전에 다른 요청이 변경 전의 데이터를 다시 캐싱할 수 있기 때문에, 트랜잭션이 끝난 뒤에 한 번 더 지워준다.
+        // 스터디 경로를 변경한 경우에도 이전 경로에 대한 캐시가 남지 않는다.
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+}
@@ -15,16 +15,20 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import javax.validation.Valid;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @RequiredArgsConstructor
 @Controller
 @Slf4j
 public class StudyController {
 
+    static final int MEMBERS_PAGE_SIZE = 50;
+
     private final StudyService studyService;
     private final ModelMapper modelMapper;
     private final StudyFormValidator studyFormValidator;
@@ -61,6 +65,7 @@ public class StudyController {
         Study study = studyService.getStudy(path);
         model.addAttribute(account);
         model.addAttribute(study);
+        model.addAttribute("studyMember", studyService.isMember(study, account));
 
         log.info(study.getManagersName().toString());
 
@@ -68,10 +73,21 @@ public class StudyController {
     }
 
     @GetMapping("/study/{path}/members")
-    public String viewStudyMembers(@CurrentUser Account account, Model model, @PathVariable String path){
+    public String viewStudyMembers(@CurrentUser Account account, Model model, @PathVariable String path,
+                                   @RequestParam(defaultValue = "0") long after){
         Study study = studyService.getStudy(path);
         model.addAttribute(account);
         model.addAttribute(study);
+        model.addAttribute("studyMember", studyService.isMember(study, account));
+
+        // 한 명 더 읽어와서 다음 페이지가 있는지 확인한다.
+        List<Account> members = studyService.getMembers(study, after, MEMBERS_PAGE_SIZE + 1);
+        boolean hasNext = members.size() > MEMBERS_PAGE_SIZE;
+        if(hasNext){
+            members = members.subList(0, MEMBERS_PAGE_SIZE);
+        }
+        model.addAttribute("members", members);
+        model.addAttribute("nextMemberId", hasNext ? members.get(members.size() - 1).getId() : null);
         return "study/members";
     }
 
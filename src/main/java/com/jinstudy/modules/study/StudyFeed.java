@@ -0,0 +1,194 @@
+package com.jinstudy.modules.study;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jinstudy.infra.config.AppProperties;
+import com.jinstudy.modules.account.Account;
+import com.jinstudy.modules.account.event.AccountInterestsChangedEvent;
+import com.jinstudy.modules.tag.Tag;
+import com.jinstudy.modules.zone.Zone;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 홈 화면에 보여줄 사용자별 추천 스터디. 공개했고 인원 모집 중인 스터디를 사용자의 관심 주제, 활동 지역과 겹치는 개수 순서로 보여준다.
+// 요청마다 account_tags x study_tags 를 join 하지 않도록 태그 -> 스터디, 지역 -> 스터디 목록을 메모리에 만들어 두고,
+// 사용자의 태그, 지역에 해당하는 목록만 세서 상위 FEED_SIZE 개를 고른다. 고른 결과(스터디 id)는 사용자별로 캐싱한다.
+@Component
+public class StudyFeed {
+
+    public static final int FEED_SIZE = 9;
+
+    private static final String CACHE_NAME = "studyFeeds";
+
+    private final Map<Long, Set<Long>> studiesByTag = new HashMap<>();
+    private final Map<Long, Set<Long>> studiesByZone = new HashMap<>();
+    private final Map<Long, StudyKeys> keysByStudy = new HashMap<>(); // 다시 색인하거나 지울 때 기존 목록에서 빼기 위해서
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Cache<Long, List<Long>> cache;
+
+    public StudyFeed(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(appProperties.getCache().getFeedMaximumSize())
+                .expireAfterWrite(appProperties.getCache().getFeedExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // 추천 스터디 id 를 추천 순서대로 돌려준다. account 의 tags, zones 는 캐시에 없을 때만 읽는다.
+    public List<Long> getStudyIds(Account account) {
+        return cache.get(account.getId(), id -> recommend(ids(account.getTags(), Tag::getId), ids(account.getZones(), Zone::getId)));
+    }
+
+    public void index(Study study) {
+        // 태그, 지역은 지금(트랜잭션 안에서) 읽어두고 목록에는 커밋된 뒤에 반영한다.
+        Long id = study.getId();
+        StudyKeys keys = isRecommendable(study) ? StudyKeys.of(study) : null;
+        afterCommit(() -> {
+            if(keys == null){
+                delete(id);
+            } else {
+                put(id, keys);
+            }
+            cache.invalidateAll(); // 스터디 하나가 여러 사용자의 추천 목록에 들어있을 수 있다.
+        });
+    }
+
+    public void remove(Study study) {
+        Long id = study.getId();
+        afterCommit(() -> {
+            delete(id);
+            cache.invalidateAll();
+        });
+    }
+
+    // 목록을 처음 만들 때처럼 이미 커밋된 스터디를 바로 반영한다.
+    void put(Study study) {
+        if(isRecommendable(study)){
+            put(study.getId(), StudyKeys.of(study));
+        }
+    }
+
+    @EventListener
+    public void onAccountInterestsChanged(AccountInterestsChangedEvent event) {
+        // StudyCache 와 같은 이유로 트랜잭션이 끝난 뒤에 한 번 더 지운다.
+        cache.invalidate(event.getAccountId());
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(event.getAccountId());
+                }
+            });
+        }
+    }
+
+    List<Long> recommend(Set<Long> tagIds, Set<Long> zoneIds) {
+        Map<Long, Integer> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            tagIds.forEach(tagId -> studiesByTag.getOrDefault(tagId, Set.of()).forEach(id -> scores.merge(id, 1, Integer::sum)));
+            zoneIds.forEach(zoneId -> studiesByZone.getOrDefault(zoneId, Set.of()).forEach(id -> scores.merge(id, 1, Integer::sum)));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // 겹치는 개수가 같으면 최근에 만든(id 가 큰) 스터디 먼저. 상위 FEED_SIZE 개만 힙에 남긴다.
+        Comparator<Map.Entry<Long, Integer>> byScore = Map.Entry.<Long, Integer>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Integer>> top = new PriorityQueue<>(byScore);
+        for(Map.Entry<Long, Integer> entry : scores.entrySet()){
+            top.offer(entry);
+            if(top.size() > FEED_SIZE){
+                top.poll();
+            }
+        }
+        return top.stream()
+                .sorted(byScore.reversed())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private boolean isRecommendable(Study study) {
+        return study.isPublished() && study.isRecruiting() && !study.isClosed();
+    }
+
+    private void put(Long id, StudyKeys keys) {
+        lock.writeLock().lock();
+        try {
+            deleteKeys(id);
+            keys.tagIds.forEach(tagId -> studiesByTag.computeIfAbsent(tagId, t -> new HashSet<>()).add(id));
+            keys.zoneIds.forEach(zoneId -> studiesByZone.computeIfAbsent(zoneId, z -> new HashSet<>()).add(id));
+            keysByStudy.put(id, keys);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void delete(Long id) {
+        lock.writeLock().lock();
+        try {
+            deleteKeys(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void deleteKeys(Long id) {
+        StudyKeys keys = keysByStudy.remove(id);
+        if(keys == null){
+            return;
+        }
+        keys.tagIds.forEach(tagId -> removeFrom(studiesByTag, tagId, id));
+        keys.zoneIds.forEach(zoneId -> removeFrom(studiesByZone, zoneId, id));
+    }
+
+    private void removeFrom(Map<Long, Set<Long>> postings, Long key, Long id) {
+        Set<Long> studies = postings.get(key);
+        studies.remove(id);
+        if(studies.isEmpty()){
+            postings.remove(key);
+        }
+    }
+
+    private void afterCommit(Runnable runnable) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+
+    private static <T> Set<Long> ids(Set<T> entities, Function<T, Long> id) {
+        return entities.stream().map(id).collect(Collectors.toSet());
+    }
+
+    private static class StudyKeys {
+        private final Set<Long> tagIds;
+        private final Set<Long> zoneIds;
+
+        private StudyKeys(Set<Long> tagIds, Set<Long> zoneIds) {
+            this.tagIds = tagIds;
+            this.zoneIds = zoneIds;
+        }
+
+        private static StudyKeys of(Study study) {
+            return new StudyKeys(ids(study.getTags(), Tag::getId), ids(study.getZones(), Zone::getId));
+        }
+    }
+}
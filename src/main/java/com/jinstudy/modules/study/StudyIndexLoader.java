@@ -0,0 +1,52 @@
+package com.jinstudy.modules.study;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// 검색 색인과 추천 목록(StudyFeed)은 메모리에만 있기 때문에 애플리케이션이 뜰 때 공개된 스터디 전체를 한 번 읽어서 만든다.
+// 이후에는 StudyService 가 바뀐 스터디만 다시 반영한다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StudyIndexLoader implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final StudyRepository studyRepository;
+    private final StudySearchIndex studySearchIndex;
+    private final StudyFeed studyFeed;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        load();
+    }
+
+    void load() {
+        long start = System.currentTimeMillis();
+        long lastId = 0;
+        while(true){
+            // 배치마다 트랜잭션(영속성 컨텍스트)을 새로 열어서 읽어온 스터디가 메모리에 계속 쌓이지 않도록 한다.
+            long afterId = lastId;
+            Long last = transactionTemplate.execute(status -> {
+                List<Study> studies = studyRepository.findStudiesToIndex(afterId, BATCH_SIZE);
+                studies.forEach(study -> {
+                    studySearchIndex.put(study);
+                    studyFeed.put(study);
+                });
+                return studies.isEmpty() ? null : studies.get(studies.size() - 1).getId();
+            });
+            if(last == null){
+                break;
+            }
+            lastId = last;
+        }
+        log.info("indexed {} studies for search in {}ms", studySearchIndex.size(), System.currentTimeMillis() - start);
+    }
+}
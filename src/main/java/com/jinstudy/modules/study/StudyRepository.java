@@ -2,14 +2,20 @@ package com.jinstudy.modules.study;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
 
 @Transactional(readOnly = true)
-public interface StudyRepository extends JpaRepository<Study, Long> {
+public interface StudyRepository extends JpaRepository<Study, Long>, StudyRepositoryExtension {
 
-    @EntityGraph(value="Study.withAll", type = EntityGraph.EntityGraphType.LOAD)
     Study findByPath(String path);
+    // 스터디 페이지는 StudyRepositoryExtension.findStudyToViewByPath 를 사용한다.
 
     boolean existsByPath(String path);
 
@@ -22,13 +28,22 @@ public interface StudyRepository extends JpaRepository<Study, Long> {
     @EntityGraph(value="Study.withManagers", type = EntityGraph.EntityGraphType.FETCH)
     Study findStudyWithManagersByPath(String path);
 
-    @EntityGraph(value="Study.withMembers", type = EntityGraph.EntityGraphType.FETCH)
-    Study findStudyWithMembersByPath(String path);
+    Study findStudyOnlyByPath(String path);
 
-    @EntityGraph(value="Study.withMembersAndManagers", type = EntityGraph.EntityGraphType.FETCH)
-    Study findStudyWithMembersAndManagersByPath(String path);
+    @EntityGraph(value="Study.withTagsAndZones", type = EntityGraph.EntityGraphType.FETCH)
+    List<Study> findStudyWithTagsAndZonesByIdIn(Collection<Long> ids); // 검색 결과 한 페이지 만큼의 스터디
 
-    Study findStudyOnlyByPath(String path);
+    @EntityGraph(value="Study.withTagsAndZones", type = EntityGraph.EntityGraphType.FETCH)
+    Study findStudyWithTagsAndZonesById(Long id); // 새 스터디 알림을 받을 계정을 찾을 때
+
+    @Modifying // 알림 한 페이지를 넣는 트랜잭션에서 같이 커밋해야 다시 보낼 때 이미 넣은 페이지를 건너뛸 수 있다.
+    @Query("update Study s set s.notifiedAccountId = :accountId where s.id = :id")
+    int updateNotifiedAccountId(@Param("id") Long id, @Param("accountId") Long accountId);
+
+    // 구성원, 관리자인지 확인할 때 members, managers 를 모두 읽어오지 않고 exists 쿼리로 확인한다.
+    boolean existsByIdAndMembersId(Long id, Long accountId);
+
+    boolean existsByIdAndManagersId(Long id, Long accountId);
 
 
 }
@@ -0,0 +1,28 @@
+package com.jinstudy.modules.study;
+
+import com.jinstudy.modules.account.Account;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface StudyRepositoryExtension { // Spring Data JPA 가 만들어주는 쿼리 메서드로는 표현하기 힘든 조회를 직접 구현하기 위한 인터페이스
+
+    // 스터디 페이지에 필요한 tags, zones, managers 를 채운 스터디. members 는 읽어오지 않고 memberCount 만 채운다.
+    Study findStudyToViewByPath(String path);
+
+    long countMembers(Study study);
+
+    // 구성원 목록을 account id 순서로 afterAccountId 다음부터 size 명만 읽어온다. (keyset 페이징)
+    List<Account> findMembers(Study study, long afterAccountId, int size);
+
+    // study.getMembers() 를 초기화하지 않고 조인 테이블에 직접 추가, 삭제한다. 실제로 추가(삭제)되었으면 true.
+    @Transactional
+    boolean addMember(Study study, Account account);
+
+    @Transactional
+    boolean removeMember(Study study, Account account);
+
+    // 검색 색인을 만들 때 사용. 공개된 스터디를 id 순서로 afterId 다음부터 size 개 읽어오고 tags, zones 를 채운다.
+    List<Study> findStudiesToIndex(long afterId, int size);
+}
@@ -0,0 +1,103 @@
+package com.jinstudy.modules.study;
+
+import com.jinstudy.modules.account.Account;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StudyRepositoryExtensionImpl implements StudyRepositoryExtension {
+    // 클래스 이름이 반드시 StudyRepositoryExtension + Impl 이어야 Spring Data JPA가 StudyRepository에 구현체로 붙여준다.
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Study findStudyToViewByPath(String path) {
+        // 기존의 Study.withAll EntityGraph 는 tags, zones, members, managers 를 하나의 쿼리로 join 하기 때문에
+        // 결과 row 수가 tags x zones x members x managers 만큼 늘어난다. (멤버 200명, 태그 10개만 되어도 수천 row)
+        // 루트 + tags 를 먼저 가져오고, 나머지 컬렉션은 같은 영속성 컨텍스트 안에서 하나씩 fetch join 해서 채워 넣는다.
+        // members 는 스터디가 커지면 수천 명이 될 수 있기 때문에 읽어오지 않고 count 쿼리로 구성원 수만 가져온다. (구성원 목록은 findMembers 로 페이징)
+        // -> 쿼리는 4번 나가지만 row 수는 각 컬렉션 크기의 합 만큼만 늘어난다.
+        List<Study> studies = entityManager.createQuery(
+                "select s from Study s left join fetch s.tags where s.path = :path", Study.class)
+                .setParameter("path", path)
+                .getResultList();
+        if(studies.isEmpty()){
+            return null;
+        }
+
+        Study study = studies.get(0);
+        fetchCollection(study, "zones");
+        fetchCollection(study, "managers");
+        study.setMemberCount(countMembers(study));
+        return study;
+    }
+
+    @Override
+    public long countMembers(Study study) {
+        return entityManager.createQuery("select count(m) from Study s join s.members m where s = :study", Long.class)
+                .setParameter("study", study)
+                .getSingleResult();
+    }
+
+    @Override
+    public List<Account> findMembers(Study study, long afterAccountId, int size) {
+        // offset 페이징은 뒤 페이지로 갈수록 앞의 row 를 모두 건너뛰어야 하지만, 마지막으로 본 id 다음부터 읽으면
+        // study_members (study_id, members_id) 인덱스를 타고 필요한 만큼만 읽는다.
+        return entityManager.createQuery("select m from Study s join s.members m " +
+                "where s = :study and m.id > :afterAccountId order by m.id", Account.class)
+                .setParameter("study", study)
+                .setParameter("afterAccountId", afterAccountId)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    @Override
+    public boolean addMember(Study study, Account account) {
+        // members.add() 를 하려면 Set 의 중복 확인을 위해서 구성원 전체를 읽어와야 한다. -> 구성원 수와 상관없이 row 하나만 insert.
+        // 이미 구성원이면 아무것도 하지 않는다. 동시에 가입 요청이 들어와도 primary key (study_id, members_id) 때문에 중복 row 는 생기지 않는다.
+        return entityManager.createNativeQuery("insert into study_members (study_id, members_id) select :studyId, :accountId " +
+                "where not exists (select 1 from study_members where study_id = :studyId and members_id = :accountId)")
+                .setParameter("studyId", study.getId())
+                .setParameter("accountId", account.getId())
+                .executeUpdate() == 1;
+    }
+
+    @Override
+    public boolean removeMember(Study study, Account account) {
+        return entityManager.createNativeQuery("delete from study_members where study_id = :studyId and members_id = :accountId")
+                .setParameter("studyId", study.getId())
+                .setParameter("accountId", account.getId())
+                .executeUpdate() == 1;
+    }
+
+    @Override
+    public List<Study> findStudiesToIndex(long afterId, int size) {
+        List<Long> ids = entityManager.createQuery("select s.id from Study s " +
+                "where s.published = true and s.id > :afterId order by s.id", Long.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(size) // fetch join 과 setMaxResults 를 같이 쓰면 메모리에서 페이징 하기 때문에 id 를 먼저 자른다.
+                .getResultList();
+        if(ids.isEmpty()){
+            return List.of();
+        }
+
+        // findStudyToViewByPath 와 같은 이유로 tags, zones 를 나눠서 fetch join
+        List<Study> studies = entityManager.createQuery("select distinct s from Study s left join fetch s.tags " +
+                "where s.id in :ids order by s.id", Study.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        entityManager.createQuery("select distinct s from Study s left join fetch s.zones where s.id in :ids", Study.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        return studies;
+    }
+
+    private void fetchCollection(Study study, String collection) {
+        // 이미 영속성 컨텍스트에 있는 study 객체의 초기화 되지 않은 컬렉션이 fetch join 결과로 채워진다.
+        entityManager.createQuery("select s from Study s left join fetch s." + collection + " where s = :study", Study.class)
+                .setParameter("study", study)
+                .getResultList();
+    }
+}
@@ -0,0 +1,32 @@
+package com.jinstudy.modules.study;
+
+import com.jinstudy.modules.account.Account;
+import com.jinstudy.modules.account.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@RequiredArgsConstructor
+@Controller
+public class StudySearchController {
+
+    private final StudyService studyService;
+
+    @GetMapping("/search/study")
+    public String searchStudy(@CurrentUser Account account, @RequestParam(defaultValue = "") String keyword,
+                              @PageableDefault(size = 9) Pageable pageable, Model model){
+        // 로그인 하지 않은 사용자도 검색할 수 있다. 정렬은 색인이 정한 관련도 순서를 따르기 때문에 sort 파라미터는 사용하지 않는다.
+        if(account != null){
+            model.addAttribute(account);
+        }
+        Page<Study> studyPage = studyService.searchStudies(keyword, pageable);
+        model.addAttribute("studyPage", studyPage);
+        model.addAttribute("keyword", keyword);
+        return "search";
+    }
+}
@@ -0,0 +1,189 @@
+package com.jinstudy.modules.study;
+
+import com.jinstudy.modules.tag.Tag;
+import com.jinstudy.modules.zone.Zone;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+// 공개된 스터디의 제목, 짧은 소개, 상세 소개, 태그, 지역을 메모리에 역색인(토큰 -> 스터디 id) 해두고 검색한다.
+// LIKE '%키워드%' 는 인덱스를 탈 수 없어서 스터디 전체를 읽어야 하지만, 역색인은 키워드가 들어있는 스터디만 바로 찾는다.
+// 스터디가 바뀔 때마다 StudyService 에서 해당 스터디만 다시 색인하고, 애플리케이션이 뜰 때 StudyIndexLoader 가 전체를 색인한다.
+@Component
+public class StudySearchIndex {
+
+    // 같은 토큰이라도 제목이나 태그에 있는 것이 상세 소개 본문에 있는 것 보다 더 관련이 깊다.
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float TAG_WEIGHT = 2.5f;
+    private static final float ZONE_WEIGHT = 2.0f;
+    private static final float SHORT_DESCRIPTION_WEIGHT = 1.5f;
+    private static final float FULL_DESCRIPTION_WEIGHT = 1.0f;
+    private static final float K1 = 1.2f; // 같은 토큰이 여러 번 나와도 점수가 끝없이 커지지 않도록 (BM25 의 tf saturation)
+
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>(); // 토큰 -> (스터디 id -> 가중치 합)
+    private final Map<Long, Set<String>> tokensByStudy = new HashMap<>(); // 다시 색인하거나 지울 때 기존 토큰을 찾기 위해서
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void index(Study study) {
+        // 토큰은 지금(트랜잭션 안에서 lazy loading 이 가능할 때) 만들고, 색인에는 커밋된 뒤에 반영한다. -> 롤백된 변경은 검색되지 않는다.
+        Long id = study.getId();
+        Map<String, Float> tokens = study.isPublished() ? tokenize(study) : null;
+        afterCommit(() -> {
+            if(tokens == null){
+                delete(id);
+            } else {
+                put(id, tokens);
+            }
+        });
+    }
+
+    public void remove(Study study) {
+        Long id = study.getId();
+        afterCommit(() -> delete(id));
+    }
+
+    // 색인을 처음 만들 때처럼 이미 커밋된 스터디를 바로 색인한다.
+    void put(Study study) {
+        if(study.isPublished()){
+            put(study.getId(), tokenize(study));
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tokensByStudy.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 관련도 순서로 스터디 id 를 페이징해서 돌려준다. 검색어 토큰의 절반 이상이 들어있는 스터디만 결과에 포함된다.
+    public Page<Long> search(String keyword, Pageable pageable) {
+        Set<String> queryTokens = new LinkedHashSet<>(StudyTokenizer.tokenize(keyword));
+        if(queryTokens.isEmpty()){
+            return Page.empty(pageable);
+        }
+
+        Map<Long, Float> scores = new HashMap<>();
+        Map<Long, Integer> matches = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int numberOfStudies = tokensByStudy.size();
+            for(String token : queryTokens){
+                Map<Long, Float> posting = postings.get(token);
+                if(posting == null){
+                    continue;
+                }
+                double idf = Math.log(1 + (numberOfStudies - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((id, weight) -> {
+                    scores.merge(id, (float) (idf * weight * (K1 + 1) / (weight + K1)), Float::sum);
+                    matches.merge(id, 1, Integer::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // 필요한 페이지까지만 힙에 남겨서 결과가 많아도 전체를 정렬하지 않는다.
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        Comparator<Map.Entry<Long, Float>> byRelevance = Map.Entry.<Long, Float>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey()); // 점수가 같으면 최근에 만든(id 가 큰) 스터디 먼저
+        PriorityQueue<Map.Entry<Long, Float>> top = new PriorityQueue<>(byRelevance);
+        int total = 0;
+        for(Map.Entry<Long, Float> entry : scores.entrySet()){
+            int matched = matches.get(entry.getKey());
+            if(matched * 2 < queryTokens.size()){
+                continue;
+            }
+            total++;
+            entry.setValue(entry.getValue() * matched / queryTokens.size()); // 검색어를 더 많이 포함한 스터디가 앞으로
+            top.offer(entry);
+            if(top.size() > limit){
+                top.poll();
+            }
+        }
+
+        List<Long> ids = top.stream()
+                .sorted(byRelevance.reversed())
+                .skip(pageable.getOffset())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    private void put(Long id, Map<String, Float> tokens) {
+        lock.writeLock().lock();
+        try {
+            deleteTokens(id);
+            tokens.forEach((token, weight) -> postings.computeIfAbsent(token, t -> new HashMap<>()).put(id, weight));
+            tokensByStudy.put(id, tokens.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void delete(Long id) {
+        lock.writeLock().lock();
+        try {
+            deleteTokens(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void deleteTokens(Long id) {
+        Set<String> tokens = tokensByStudy.remove(id);
+        if(tokens == null){
+            return;
+        }
+        for(String token : tokens){
+            Map<Long, Float> posting = postings.get(token);
+            posting.remove(id);
+            if(posting.isEmpty()){
+                postings.remove(token);
+            }
+        }
+    }
+
+    private Map<String, Float> tokenize(Study study) {
+        Map<String, Float> tokens = new HashMap<>();
+        addTokens(tokens, study.getTitle(), TITLE_WEIGHT);
+        addTokens(tokens, study.getShortDescription(), SHORT_DESCRIPTION_WEIGHT);
+        addTokens(tokens, study.getFullDescription(), FULL_DESCRIPTION_WEIGHT);
+        for(Tag tag : study.getTags()){
+            addTokens(tokens, tag.getTitle(), TAG_WEIGHT);
+        }
+        for(Zone zone : study.getZones()){
+            addTokens(tokens, zone.getLocalNameOfCity(), ZONE_WEIGHT);
+            addTokens(tokens, zone.getCity(), ZONE_WEIGHT);
+            addTokens(tokens, zone.getProvince(), ZONE_WEIGHT); // 도 정보는 없을 수도 있다. (null 이면 토큰 없음)
+        }
+        return tokens;
+    }
+
+    private void addTokens(Map<String, Float> tokens, String text, float weight) {
+        StudyTokenizer.tokenize(text).forEach(token -> tokens.merge(token, weight, Float::sum));
+    }
+
+    private void afterCommit(Runnable runnable) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+}
@@ -1,5 +1,7 @@
 package com.jinstudy.modules.study;
 
+import com.jinstudy.infra.image.ImageStore;
+import com.jinstudy.infra.outbox.Outbox;
 import com.jinstudy.modules.account.Account;
 import com.jinstudy.modules.study.event.StudyCreatedEvent;
 import com.jinstudy.modules.tag.Tag;
@@ -7,11 +9,20 @@ import com.jinstudy.modules.zone.Zone;
 import com.jinstudy.modules.study.form.StudyDescriptionForm;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import static com.jinstudy.modules.study.form.StudyForm.VALID_PATH_PATTERN;
 
 
@@ -22,19 +33,25 @@ public class StudyService {
 
     private final StudyRepository studyRepository;
     private final ModelMapper modelMapper;
-    private final ApplicationEventPublisher eventPublisher;
+    private final Outbox outbox;
+    private final StudyCache studyCache;
+    private final EntityManager entityManager;
+    private final ImageStore imageStore;
+    private final StudySearchIndex studySearchIndex;
+    private final StudyFeed studyFeed;
 
     public Study createNewStudy(Account account, Study study) {
 
         Study newStudy = studyRepository.save(study);
+        studyCache.evict(newStudy.getPath());
         newStudy.addManager(account);
-        eventPublisher.publishEvent(new StudyCreatedEvent(newStudy));
         return newStudy;
 
     }
 
     public Study getStudyToUpdate(Account account, String path) {
-        Study study = getStudy(path);
+        Study study = studyRepository.findStudyToViewByPath(path); // 수정에 사용할 객체는 캐시가 아닌 영속성 컨텍스트가 관리하는 객체여야 한다.
+        checkIfExistingStudy(path,study);
         if(!study.isManagedBy(account)){ // 관리자로 등록이 되어있지 않은 경우
             throw new AccessDeniedException("해당 기능을 사용할 수 없습니다.");
         }
@@ -42,43 +59,107 @@ public class StudyService {
     }
 
     public Study getStudy(String path){
-        Study study = studyRepository.findByPath(path);
+        // 조회 전용 페이지(스터디, 구성원, 모임)에서 사용. 캐시에 없을 때만 DB에서 읽어온다.
+        Study study = studyCache.get(path, this::loadStudyToView);
         if(study==null){
             throw new IllegalArgumentException(path + "에 해당하는 스터디가 없습니다.");
         }
         return study;
     }
 
+    // 캐시에 있는 스터디는 여러 사용자가 공유하기 때문에 사용자마다 다른 정보(구성원 여부)는 따로 조회한다.
+    @Transactional(readOnly = true)
+    public boolean isMember(Study study, Account account) {
+        return account != null && studyRepository.existsByIdAndMembersId(study.getId(), account.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Account> getMembers(Study study, long afterAccountId, int size) {
+        return studyRepository.findMembers(study, afterAccountId, size);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Study> searchStudies(String keyword, Pageable pageable) {
+        Page<Long> ids = studySearchIndex.search(keyword, pageable);
+        return new PageImpl<>(findStudiesInOrder(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    // 홈 화면에 보여줄 추천 스터디. 관심 주제, 활동 지역과 많이 겹치는 순서.
+    @Transactional(readOnly = true)
+    public List<Study> getStudyFeed(Account account) {
+        return findStudiesInOrder(studyFeed.getStudyIds(account));
+    }
+
+    private List<Study> findStudiesInOrder(List<Long> ids) {
+        if(ids.isEmpty()){
+            return List.of();
+        }
+
+        // 한 페이지 만큼만 DB 에서 읽어오고, 색인이 정한 순서대로 다시 정렬한다.
+        // fetch join 결과에는 같은 스터디가 여러 번 들어있을 수 있다.
+        Map<Long, Study> studies = studyRepository.findStudyWithTagsAndZonesByIdIn(ids).stream()
+                .collect(Collectors.toMap(Study::getId, Function.identity(), (study, duplicate) -> study));
+        return ids.stream()
+                .map(studies::get)
+                .filter(Objects::nonNull) // 색인에서 지워지기 직전에 삭제된 스터디
+                .collect(Collectors.toList());
+    }
+
+    private Study loadStudyToView(String path) {
+        Study study = studyRepository.findStudyToViewByPath(path); // 컬렉션 별로 나눠서 조회 (cartesian join 방지)
+        if(study != null){
+            entityManager.detach(study); // 여러 요청이 공유하는 객체이기 때문에 영속성 컨텍스트에서 분리해서 캐싱한다.
+        }
+        return study;
+    }
+
     public void updateStudyDescription(Study study, StudyDescriptionForm studyDescriptionForm) {
         modelMapper.map(studyDescriptionForm,study);
+        studyCache.evict(study.getPath());
+        studySearchIndex.index(study);
     }
 
     public void enableStudyBanner(Study study) {
         study.setUseBanner(true);
+        studyCache.evict(study.getPath());
     }
 
     public void disableStudyBanner(Study study) {
         study.setUseBanner(false);
+        studyCache.evict(study.getPath());
     }
 
     public void updateStudyImage(String image, Study study) {
-        study.setImage(image);
+        study.setImage(imageStore.store(image)); // data URL 은 파일로 저장하고 URL 로 바꿔서 저장
+        studyCache.evict(study.getPath());
     }
 
     public void addTag(Study study, Tag tag) {
         study.getTags().add(tag); // 두 객체 모두 persist 상태의 객체이므로 그냥 객체의 관점에서 변경을 해줘도 나중에 commit 할때 디비에 변경사항이 반영이된다.
+        studyCache.evict(study.getPath());
+        studySearchIndex.index(study);
+        studyFeed.index(study);
     }
 
     public void removeTag(Study study, Tag tag) {
         study.getTags().remove(tag);
+        studyCache.evict(study.getPath());
+        studySearchIndex.index(study);
+        studyFeed.index(study);
     }
 
     public void addZone(Study study, Zone zone) {
         study.getZones().add(zone);
+        studyCache.evict(study.getPath());
+        studySearchIndex.index(study);
+        studyFeed.index(study);
     }
 
     public void removeZone(Study study, Zone zone) {
         study.getZones().remove(zone);
+        studyCache.evict(study.getPath());
+        studySearchIndex.index(study);
+        studyFeed.index(study);
     }
 
     public Study getStudyToUpdateTag(Account account, String path) {
@@ -117,18 +198,29 @@ public class StudyService {
 
     public void publish(Study study) {
         study.publish(); // 잘 보도록 하자.
+        studyCache.evict(study.getPath());
+        studySearchIndex.index(study);
+        studyFeed.index(study);
+        // 공개하기 전에는 다른 사용자에게 보이지 않기 때문에 만들 때가 아니라 공개할 때 새 스터디 알림을 보낸다.
+        outbox.publish(new StudyCreatedEvent(study.getId())); // 공개와 같은 트랜잭션에서 저장한다.
     }
 
     public void close(Study study) {
         study.close();
+        studyCache.evict(study.getPath());
+        studyFeed.index(study);
     }
 
     public void startRecruit(Study study) {
         study.startRecruit();
+        studyCache.evict(study.getPath());
+        studyFeed.index(study);
     }
 
     public void stopRecruit(Study study) {
         study.stopRecruit();
+        studyCache.evict(study.getPath());
+        studyFeed.index(study);
     }
 
     public boolean isValidPath(String newPath) {
@@ -139,7 +231,9 @@ public class StudyService {
     }
 
     public void updateStudyPath(Study study, String newPath) {
+        String oldPath = study.getPath();
         study.setPath(newPath);
+        studyCache.evict(oldPath, newPath); // 이전 경로로 캐싱된 스터디가 남아있지 않도록 두 경로 모두 지운다.
     }
 
     public boolean isValidTitle(String newTitle) {
@@ -148,11 +242,16 @@ public class StudyService {
 
     public void updateStudyTitle(Study study, String newTitle) {
         study.setTitle(newTitle);
+        studyCache.evict(study.getPath());
+        studySearchIndex.index(study);
     }
 
     public void remove(Study study) {
         if(study.isRemovable()){
             studyRepository.delete(study); // 실제로 DB에서 스터디 정보를 삭제
+            studyCache.evict(study.getPath());
+            studySearchIndex.remove(study);
+            studyFeed.remove(study);
         }
         else{
             throw new IllegalArgumentException("스터디를 삭제할 수 없습니다."); // 뷰에서 의도하지 않은 요청에 대한 처리.
@@ -160,7 +259,7 @@ public class StudyService {
     }
 
     public Study getStudyToJoin(String path) {
-        Study study = studyRepository.findStudyWithMembersAndManagersByPath(path);
+        Study study = studyRepository.findStudyOnlyByPath(path); // 가입, 탈퇴에는 스터디 상태만 있으면 된다. 구성원 목록은 읽어오지 않는다.
         if(study==null){
             throw new IllegalArgumentException(path + "에 해당하는 스터디가 없습니다.");
         }
@@ -169,20 +268,23 @@ public class StudyService {
     }
 
     public Study getStudyToRemove(String path) {
-        Study study = studyRepository.findStudyWithMembersByPath(path);
-        if(study==null){
-            throw new IllegalArgumentException(path + "에 해당하는 스터디가 없습니다.");
-        }
-
-        return study;
+        return getStudyToJoin(path);
     }
 
     public void addMember(Study study, Account account) {
-        study.addMember(account);
+        // 구성원 수와 상관없이 exists 쿼리 + insert 한 번. 이미 구성원이면 insert 되지 않는다.
+        if(!study.canJoin() || studyRepository.existsByIdAndManagersId(study.getId(), account.getId()) || !studyRepository.addMember(study, account)){
+            throw new RuntimeException("스터디에 가입할 수 없습니다. 이미 가입한 스터디인지 또는 스터디가 가입 가능한 상태인지 확인하세요.");
+        }
+        studyCache.evict(study.getPath());
     }
 
     public void removeMember(Study study, Account account) {
-        study.removeMember(account); // 이는 해당 스터디와 사용자의 member 관계를 끊는 것이다.
+        // 이는 해당 스터디와 사용자의 member 관계를 끊는 것이다.
+        if(!study.canLeave() || !studyRepository.removeMember(study, account)){
+            throw new RuntimeException("스터디를 탈퇴할 수 없습니다. 스터디가 이미 종료 되었거나, 스터디에 참여 중이 아닐 수 있습니다.");
+        }
+        studyCache.evict(study.getPath());
     }
 
     public Study getStudyToEnroll(String path) {
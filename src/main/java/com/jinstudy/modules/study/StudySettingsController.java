@@ -1,8 +1,6 @@
 package com.jinstudy.modules.study;
 
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jinstudy.modules.account.CurrentUser;
 import com.jinstudy.modules.account.Account;
 import com.jinstudy.modules.tag.Tag;
@@ -12,7 +10,7 @@ import com.jinstudy.modules.tag.TagForm;
 import com.jinstudy.modules.study.form.StudyDescriptionForm;
 import com.jinstudy.modules.tag.TagRepository;
 import com.jinstudy.modules.tag.TagService;
-import com.jinstudy.modules.zone.ZoneRepository;
+import com.jinstudy.modules.zone.ZoneService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.http.ResponseEntity;
@@ -23,7 +21,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
-import java.util.List;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -34,9 +31,8 @@ public class StudySettingsController {
     private final StudyService studyService;
     private final ModelMapper modelMapper;
     private final TagRepository tagRepository;
-    private final ObjectMapper objectMapper;
     private final TagService tagService;
-    private final ZoneRepository zoneRepository;
+    private final ZoneService zoneService;
 
     @GetMapping("/description")
     public String viewStudySettingForm(@CurrentUser Account account, Model model, @PathVariable String path){
@@ -97,13 +93,20 @@ public class StudySettingsController {
     @PostMapping("/banner")
     public String studyImageSubmit(@CurrentUser Account account, @PathVariable String path, Model model, String image, RedirectAttributes attributes){
         Study study = studyService.getStudyToUpdate(account, path);
-        studyService.updateStudyImage(image,study);
+        try {
+            studyService.updateStudyImage(image,study);
+        } catch (IllegalArgumentException e) { // 지원하지 않는 이미지 형식이면 500 대신 배너 설정 화면에 에러 메시지를 보여준다.
+            model.addAttribute(account);
+            model.addAttribute(study);
+            model.addAttribute("imageError", e.getMessage());
+            return "study/settings/banner";
+        }
         attributes.addFlashAttribute("message","스터디 이미지를 성공적으로 수정했습니다.");
         return "redirect:/study/"+study.getEncodedPath(path)+"/settings/banner";
     }
 
     @GetMapping("/tags")
-    public String studyTagsForm(@CurrentUser Account account, Model model, @PathVariable String path) throws JsonProcessingException {
+    public String studyTagsForm(@CurrentUser Account account, Model model, @PathVariable String path) {
         Study study = studyService.getStudyToUpdate(account,path);
         model.addAttribute(account);
         model.addAttribute(study);
@@ -111,8 +114,7 @@ public class StudySettingsController {
         // 현재 tags정보로 저장되어 있는 값을 리스트로 view에 넘겨준다.
         model.addAttribute("tags",study.getTags().stream().map(Tag::getTitle).collect(Collectors.toList()));
 
-        List<String> allTagTitles = tagRepository.findAll().stream().map(Tag::getTitle).collect(Collectors.toList());
-        model.addAttribute("whitelist",objectMapper.writeValueAsString(allTagTitles));
+        // 자동완성은 tagify 에서 /tags/suggest 로 요청한다.
         return "study/settings/tags";
     }
 
@@ -146,13 +148,12 @@ public class StudySettingsController {
     }
 
     @GetMapping("/zones")
-    public String studyZonesForm(@CurrentUser Account account, @PathVariable String path, Model model) throws JsonProcessingException {
+    public String studyZonesForm(@CurrentUser Account account, @PathVariable String path, Model model) {
         Study study = studyService.getStudyToUpdate(account,path);
         model.addAttribute(account);
         model.addAttribute(study);
         model.addAttribute("zones",study.getZones().stream().map(Zone::toString).collect(Collectors.toList()));
-        List<String> allZones = zoneRepository.findAll().stream().map(Zone::toString).collect(Collectors.toList());
-        model.addAttribute("whitelist",objectMapper.writeValueAsString(allZones));
+        // 전체 지역 목록은 tagify 에서 /zones/whitelist 로 받아간다.
         return "study/settings/zones";
     }
 
@@ -161,7 +162,7 @@ public class StudySettingsController {
     public ResponseEntity addZone(@CurrentUser Account account, @PathVariable String path, @RequestBody ZoneForm zoneForm){
         //Study study = studyService.getStudyToUpdate(account,path);
         Study study = studyService.getStudyToUpdateZone(account,path);
-        Zone zone  = zoneRepository.findByCityAndProvince(zoneForm.getCityName(),zoneForm.getProvinceName());
+        Zone zone = zoneService.getCatalog().getZone(zoneForm.getZoneName()); // DB 대신 메모리의 ZoneCatalog 에서 찾는다.
         if(zone==null){
             return ResponseEntity.badRequest().build();
         }
@@ -173,7 +174,7 @@ public class StudySettingsController {
     @PostMapping("/zones/remove")
     public ResponseEntity removeZone(@CurrentUser Account account, @PathVariable String path, @RequestBody ZoneForm zoneForm){
         Study study = studyService.getStudyToUpdateZone(account,path);
-        Zone zone = zoneRepository.findByCityAndProvince(zoneForm.getCityName(), zoneForm.getProvinceName());
+        Zone zone = zoneService.getCatalog().getZone(zoneForm.getZoneName());
         if(zone==null){
             return ResponseEntity.badRequest().build();
         }
@@ -0,0 +1,53 @@
+package com.jinstudy.modules.study;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// 스터디 검색용 토크나이저. 형태소 분석기 없이 한글을 검색하기 위해서 한글은 두 글자씩 끊어서(bigram) 색인한다.
+// "스프링을 공부합니다" -> 스프, 프링, 링을, 공부, 부합, 합니 ... 이기 때문에 "스프링" 으로 검색해도 조사가 붙은 단어를 찾을 수 있다.
+// 영문, 숫자는 단어 단위로 소문자로 바꿔서 색인한다. ("JPA로" -> jpa, 로)
+final class StudyTokenizer {
+
+    private StudyTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if(text == null || text.isBlank()){
+            return tokens;
+        }
+
+        String normalized = text.replaceAll("<[^>]*>", " ").toLowerCase(Locale.ROOT); // 상세 소개는 HTML 이라서 태그는 지운다.
+        int start = -1;
+        boolean hangulRun = false;
+        for(int i = 0; i <= normalized.length(); i++){
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            boolean letter = Character.isLetterOrDigit(c);
+            boolean hangul = isHangul(c);
+            if(start >= 0 && (!letter || hangul != hangulRun)){ // 글자 종류가 바뀌는 곳에서도 끊는다.
+                addTokens(tokens, normalized.substring(start, i), hangulRun);
+                start = -1;
+            }
+            if(letter && start < 0){
+                start = i;
+                hangulRun = hangul;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addTokens(List<String> tokens, String word, boolean hangul) {
+        if(!hangul || word.length() == 1){
+            tokens.add(word);
+            return;
+        }
+        for(int i = 0; i < word.length() - 1; i++){
+            tokens.add(word.substring(i, i + 2));
+        }
+    }
+
+    private static boolean isHangul(char c) {
+        return (c >= '가' && c <= '힣') || (c >= 'ㄱ' && c <= 'ㆎ');
+    }
+}
@@ -1,13 +1,12 @@
 package com.jinstudy.modules.study.event;
 
-import com.jinstudy.modules.study.Study;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
+// 스터디가 공개됐을 때 발생하는 이벤트. Outbox 에 JSON 으로 저장되기 때문에 엔티티 대신 id 만 담는다.
 @Getter
+@NoArgsConstructor @AllArgsConstructor
 public class StudyCreatedEvent {
-    private Study study;
-
-    public StudyCreatedEvent(Study study){ // 스터디가 생성됐을 때 발생하는 이벤트
-        this.study = study;
-    }
+    private Long studyId;
 }
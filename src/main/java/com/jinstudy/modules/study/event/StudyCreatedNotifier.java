@@ -0,0 +1,99 @@
+package com.jinstudy.modules.study.event;
+
+import com.jinstudy.infra.config.AppProperties;
+import com.jinstudy.infra.mail.EmailMessage;
+import com.jinstudy.infra.mail.EmailService;
+import com.jinstudy.infra.mail.MailTemplate;
+import com.jinstudy.infra.mail.MailTemplates;
+import com.jinstudy.modules.account.AccountRepository;
+import com.jinstudy.modules.account.StudyCreatedSubscriber;
+import com.jinstudy.modules.notification.NotificationRepository;
+import com.jinstudy.modules.notification.NotificationType;
+import com.jinstudy.modules.study.Study;
+import com.jinstudy.modules.study.StudyRepository;
+import com.jinstudy.modules.tag.Tag;
+import com.jinstudy.modules.zone.Zone;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// 새 스터디 알림. 스터디의 관심 주제와 활동 지역이 하나 이상씩 겹치는 계정에게
+// - 웹 알림(studyCreatedByWeb)은 Notification 으로, 이메일 알림(studyCreatedByEmail)은 메일 큐로 보낸다.
+// - 알림을 받을 계정은 인덱스로 찾고, PAGE_SIZE 명씩 나눠서 읽고 넣기 때문에 10만 명이 받아도 한 번에 메모리에 올리지 않는다.
+// - 한 페이지(알림 row, 메일)는 JDBC batch 로 넣고 페이지마다 트랜잭션을 따로 커밋한다. (커밋된 메일은 바로 보내기 시작한다)
+// - 페이지를 넣는 트랜잭션에서 그 페이지의 마지막 계정 id 를 Study.notifiedAccountId 에 같이 커밋한다.
+//   중간에 실패해서 outbox 가 같은 스터디로 다시 부르면 거기서부터 이어서 넣기 때문에 이미 알림을 받은 계정이 한 번 더 받지 않는다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StudyCreatedNotifier {
+
+    static final int PAGE_SIZE = 1000;
+
+    private final StudyRepository studyRepository;
+    private final AccountRepository accountRepository;
+    private final NotificationRepository notificationRepository;
+    private final EmailService emailService;
+    private final MailTemplates mailTemplates;
+    private final AppProperties appProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    // 이번에 알림을 보낸 계정 수를 리턴한다.
+    public int notify(Long studyId) {
+        Study study = studyRepository.findStudyWithTagsAndZonesById(studyId);
+        if(study == null){
+            return 0;
+        }
+        Set<Long> tagIds = study.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
+        Set<Long> zoneIds = study.getZones().stream().map(Zone::getId).collect(Collectors.toSet());
+        String link = "/study/" + study.getEncodedPath(study.getPath());
+        MailTemplate template = mailTemplates.get("mail/simple-link", Map.of(
+                "host", appProperties.getHost(),
+                "link", link,
+                "linkName", study.getTitle(),
+                "message", "새로운 스터디가 생겼습니다."),
+                "nickname");
+        String subject = "진스터디, '" + study.getTitle() + "' 스터디가 생겼습니다.";
+        LocalDateTime createdDateTime = LocalDateTime.now();
+
+        long start = System.currentTimeMillis();
+        int notified = 0;
+        long lastId = study.getNotifiedAccountId() == null ? 0 : study.getNotifiedAccountId();
+        List<StudyCreatedSubscriber> subscribers;
+        while(!(subscribers = accountRepository.findStudyCreatedSubscribers(tagIds, zoneIds, lastId, PAGE_SIZE)).isEmpty()){
+            List<Long> webAccountIds = new ArrayList<>();
+            List<EmailMessage> emailMessages = new ArrayList<>();
+            for(StudyCreatedSubscriber subscriber : subscribers){
+                if(subscriber.isByWeb()){
+                    webAccountIds.add(subscriber.getId());
+                }
+                if(subscriber.isByEmail()){
+                    emailMessages.add(EmailMessage.builder()
+                            .to(subscriber.getEmail())
+                            .subject(subject)
+                            .message(template.render(Map.of("nickname", subscriber.getNickname())))
+                            .build());
+                }
+            }
+            Long pageLastId = subscribers.get(subscribers.size() - 1).getId();
+            transactionTemplate.executeWithoutResult(status -> {
+                notificationRepository.insertAll(NotificationType.STUDY_CREATED, study.getTitle(), link, study.getShortDescription(),
+                        createdDateTime, webAccountIds);
+                emailService.sendEmails(emailMessages);
+                studyRepository.updateNotifiedAccountId(studyId, pageLastId);
+            });
+            notified += subscribers.size();
+            lastId = pageLastId;
+        }
+        log.info("notified {} accounts of new study {} in {}ms", notified, study.getPath(), System.currentTimeMillis() - start);
+        return notified;
+    }
+}
@@ -1,21 +1,24 @@
 package com.jinstudy.modules.study.event;
 
-import com.jinstudy.modules.study.Study;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import com.jinstudy.infra.outbox.OutboxEventHandler;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-@Slf4j
-@Async
+// 스터디를 공개한 트랜잭션이 커밋된 뒤에 OutboxDispatcher 스레드에서 받는다.
+// 최소 한 번 전달하기 때문에 알림을 보내다 실패하면 같은 스터디로 다시 받는다. 다시 받으면 StudyCreatedNotifier 가 커밋된 페이지 다음부터 이어서 보낸다.
 @Component
-public class StudyEventListener {
+@RequiredArgsConstructor
+public class StudyEventListener implements OutboxEventHandler<StudyCreatedEvent> {
 
-    @EventListener
-    public void handleStudyCreatedEvent(StudyCreatedEvent studyCreatedEvent){ // 메서드 이름은 아무거나 해도 상관없다.
-        Study study = studyCreatedEvent.getStudy();
-        log.info(study.getTitle()+" is created!!!");
-        //TODO 실제로 이메일 알림을 보내거나, Notification 정보를 수정하는 로직을 수행해야한다.
-        throw new RuntimeException();
+    private final StudyCreatedNotifier studyCreatedNotifier;
+
+    @Override
+    public Class<StudyCreatedEvent> getEventType() {
+        return StudyCreatedEvent.class;
+    }
+
+    @Override
+    public void handle(StudyCreatedEvent event) {
+        studyCreatedNotifier.notify(event.getStudyId());
     }
 }
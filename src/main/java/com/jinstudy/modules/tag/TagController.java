@@ -0,0 +1,22 @@
+package com.jinstudy.modules.tag;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class TagController {
+
+    static final int MAX_SUGGESTIONS = 10;
+
+    private final TagDictionary tagDictionary;
+
+    @GetMapping("/tags/suggest")
+    public List<String> suggest(@RequestParam(defaultValue = "") String prefix){ // tagify 에서 입력할 때마다 호출하는 자동완성 요청
+        return tagDictionary.suggest(prefix, MAX_SUGGESTIONS);
+    }
+}
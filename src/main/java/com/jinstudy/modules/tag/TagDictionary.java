@@ -0,0 +1,69 @@
+package com.jinstudy.modules.tag;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// 태그 입력 자동완성에 사용하는 태그 이름 사전. 모든 태그 이름을 소문자 키로 정렬해서 메모리에 들고 있고,
+// 접두어로 시작하는 키는 정렬된 순서에서 연속으로 붙어있기 때문에 접두어 위치부터 limit 개만 읽으면 된다.
+// 예전에는 태그 설정 페이지를 열 때마다 태그 전체를 읽어서 whitelist 로 페이지에 넣어줬다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TagDictionary implements ApplicationRunner {
+
+    private final TagRepository tagRepository;
+    // 소문자 이름 + '\0' + 원래 이름 -> 원래 이름. 대소문자만 다른 태그(Java, java)도 따로 들어간다.
+    private final NavigableMap<String, String> titles = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        tagRepository.findAllTitles().forEach(this::put);
+        log.info("loaded {} tag titles for autocomplete", titles.size());
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        List<String> suggestions = new ArrayList<>();
+        if(prefix == null || prefix.isBlank()){
+            return suggestions;
+        }
+
+        String key = prefix.trim().toLowerCase(Locale.ROOT);
+        for(Map.Entry<String, String> entry : titles.tailMap(key, true).entrySet()){
+            if(suggestions.size() == limit || !entry.getKey().startsWith(key)){
+                break;
+            }
+            suggestions.add(entry.getValue());
+        }
+        return suggestions;
+    }
+
+    // 새로 만든 태그는 트랜잭션이 커밋된 뒤에 사전에 추가한다. (롤백되면 추가하지 않는다.)
+    void add(String title) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            put(title);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(title);
+            }
+        });
+    }
+
+    void put(String title) {
+        titles.put(title.toLowerCase(Locale.ROOT) + '\0' + title, title);
+    }
+}
@@ -0,0 +1,53 @@
+package com.jinstudy.modules.tag;
+
+import com.jinstudy.infra.jpa.IdSequences;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// 없는 태그만 JDBC batch 한 번으로 넣고 바로 커밋한다. 이미 있는(커밋된) 태그는 건너뛴다.
+// 다른 트랜잭션이 같은 태그를 동시에 넣고 있으면 unique 제약 조건 위반으로 실패할 수 있다. -> TagService 가 다시 시도한다.
+// JpaTransactionManager 로 새 트랜잭션(REQUIRES_NEW)을 열면 open-session-in-view 로 요청에 묶여 있는 EntityManager 에서 트랜잭션을 시작하고,
+// 롤백할 때 그 EntityManager 를 clear 해서 요청에서 읽어둔 Account, Study 가 detached 된다.
+// 그래서 EntityManager 를 쓰지 않고 DataSourceTransactionManager 로 커넥션을 따로 잡아서 넣는다. (호출한 쪽의 트랜잭션, EntityManager 와 상관없다)
+@Component
+class TagInserter {
+
+    private final TagDictionary tagDictionary;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String insertSql;
+
+    TagInserter(TagDictionary tagDictionary, DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.tagDictionary = tagDictionary;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.insertSql = "insert into tag (id, title) select " + IdSequences.nextValueExpression(entityManagerFactory, Tag.class) + ", ? " +
+                "where not exists (select 1 from tag where title = ?)";
+    }
+
+    void insertIfAbsent(Collection<String> titles) {
+        transactionTemplate.executeWithoutResult(status -> {
+            batchInsert(titles);
+            titles.forEach(tagDictionary::add); // 자동완성 사전에도 추가 (insert 한 트랜잭션이 커밋되면)
+        });
+    }
+
+    void batchInsert(Collection<String> titles) {
+        // 여러 요청이 같은 태그들을 넣을 때 서로 다른 순서로 락을 잡지 않도록(데드락) 정렬해서 넣는다.
+        List<Object[]> args = titles.stream()
+                .sorted()
+                .map(title -> new Object[]{title, title})
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(insertSql, args);
+    }
+}
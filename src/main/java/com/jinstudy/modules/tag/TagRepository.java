@@ -2,9 +2,18 @@ package com.jinstudy.modules.tag;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
 @Transactional(readOnly = true)
 public interface TagRepository extends JpaRepository<Tag,Long> {
     Tag findByTitle(String title);
+
+    List<Tag> findByTitleIn(Collection<String> titles);
+
+    @Query("select t.title from Tag t")
+    List<String> findAllTitles(); // 엔티티 대신 이름만 읽어온다. (TagDictionary)
 }
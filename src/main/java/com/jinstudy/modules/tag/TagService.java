@@ -1,23 +1,120 @@
 package com.jinstudy.modules.tag;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jinstudy.infra.config.AppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-@RequiredArgsConstructor
+import javax.persistence.EntityManager;
+import java.util.*;
+
+// 태그 이름으로 태그를 찾고, 없으면 만든다.
+// - 이름 -> id 캐시에 있는 태그는 DB 를 읽지 않고 프록시(getReference)로 돌려준다. 태그는 이름이 바뀌거나 지워지지 않는다.
+// - 캐시에 없는 태그는 IN 쿼리 한 번으로 찾고, 그래도 없는 태그만 JDBC batch 한 번으로 넣는다.
+// - 예전에는 findByTitle 후에 save 를 해서 두 사용자가 같은 새 태그를 동시에 추가하면 unique 제약 조건 때문에 한 요청이 실패했다.
+//   지금은 insert 만 짧은 새 트랜잭션에서 해서(TagInserter), 다른 요청이 먼저 넣었으면 그 트랜잭션만 롤백하고 태그를 다시 읽어온다.
+//   태그는 여러 사용자가 함께 쓰는 사전이라서 태그를 추가하던 요청이 나중에 롤백되어도 만든 태그는 남겨둔다.
+@Slf4j
 @Transactional
 @Service
 public class TagService {
 
+    private static final String CACHE_NAME = "tagIds";
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
     private final TagRepository tagRepository;
+    private final TagInserter tagInserter;
+    private final EntityManager entityManager;
+    private final Cache<String, Long> cache;
+
+    public TagService(TagRepository tagRepository, TagInserter tagInserter, EntityManager entityManager,
+                      AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.tagRepository = tagRepository;
+        this.tagInserter = tagInserter;
+        this.entityManager = entityManager;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(appProperties.getCache().getTagMaximumSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
 
+    // 트랜잭션 밖(컨트롤러)에서 부르면 트랜잭션을 열지 않는다. -> insert 하는 트랜잭션과 함께 커넥션을 두 개 잡지 않는다.
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Tag findOrCreateNew(String tagTitle){
-        Tag tag = tagRepository.findByTitle(tagTitle);
-        if(tag == null){
-            tag = tagRepository.save(Tag.builder().title(tagTitle).build());
-        }
         // tag가 없으면 DB에 새로 만들어서 account와 관계를 맺고, 이미 존재하면 존재하는 객체로 account와 관계를 맺는다.
+        return findOrCreateNew(List.of(tagTitle)).get(tagTitle);
+    }
+
+    // 이름 -> 태그. 넘겨준 이름 순서대로 들어있다.
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<String, Tag> findOrCreateNew(Collection<String> tagTitles){
+        Map<String, Tag> tags = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for(String title : new LinkedHashSet<>(tagTitles)){
+            Long id = cache.getIfPresent(title);
+            if(id != null){
+                tags.put(title, entityManager.getReference(Tag.class, id));
+            } else {
+                missing.add(title);
+            }
+        }
 
-        return tag;
+        missing = load(missing, tags);
+        for(int attempt = 1; !missing.isEmpty(); attempt++){
+            if(attempt > MAX_INSERT_ATTEMPTS){
+                throw new IllegalStateException("태그를 만들 수 없습니다. " + missing);
+            }
+            List<String> titles = missing;
+            try {
+                tagInserter.insertIfAbsent(titles);
+            } catch (DataAccessException e) {
+                // 다른 요청이 같은 태그를 먼저 넣었다. (unique 제약 조건 위반, DB 에 따라 락 대기 시간 초과나 동시 수정 오류)
+                if(attempt == MAX_INSERT_ATTEMPTS){
+                    throw e;
+                }
+                log.debug("tags {} were created concurrently, retrying", titles, e);
+            }
+            missing = load(titles, tags);
+        }
+        return tags;
+    }
+
+    // DB 에 있는 태그를 tags 에 채우고, 없는 이름을 돌려준다.
+    private List<String> load(List<String> titles, Map<String, Tag> tags) {
+        if(titles.isEmpty()){
+            return titles;
+        }
+        List<Tag> found = tagRepository.findByTitleIn(titles);
+        found.forEach(tag -> tags.put(tag.getTitle(), tag));
+        cacheAfterCommit(found);
+
+        List<String> missing = new ArrayList<>(titles);
+        missing.removeIf(tags::containsKey);
+        return missing;
+    }
+
+    // 호출한 쪽의 트랜잭션에서 직접 저장한 태그는 롤백되면 없어지기 때문에 커밋된 뒤에 캐싱한다.
+    private void cacheAfterCommit(List<Tag> tags) {
+        Map<String, Long> ids = new HashMap<>();
+        tags.forEach(tag -> ids.put(tag.getTitle(), tag.getId()));
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            cache.putAll(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.putAll(ids);
+            }
+        });
     }
 }
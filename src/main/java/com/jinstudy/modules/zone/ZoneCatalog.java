@@ -0,0 +1,55 @@
+package com.jinstudy.modules.zone;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 지역 정보는 zonelist_kr.csv 에서 한 번 넣고 나면 바뀌지 않는 참조 데이터라서 요청마다 DB 에서 읽지 않고 메모리에 들고 있는다.
+// 한 번 만들면 바뀌지 않는(immutable) 객체이고, 지역 데이터가 바뀌면 ZoneService 가 새로 만들어서 통째로 바꾼다.
+// 여기에 들어있는 Zone 은 영속성 컨텍스트에서 분리된 객체지만 id 가 있어서 Account, Study 의 zones 에 바로 추가해도 된다.
+public final class ZoneCatalog {
+
+    private final List<Zone> zones;
+    private final Map<Long, Zone> byId;
+    private final Map<String, Zone> byName; // Zone.toString() -> "Seoul(서울특별시)/none", tagify 에서 보내주는 이름
+    private final Map<String, Zone> byCityAndProvince;
+    private final byte[] whitelistJson; // tagify whitelist 로 내려주는 지역 이름 목록. 요청마다 직렬화하지 않도록 미리 만들어 둔다.
+
+    ZoneCatalog(Collection<Zone> zones, Function<List<String>, byte[]> serializer) {
+        this.zones = List.copyOf(zones);
+        this.byId = this.zones.stream().collect(Collectors.toUnmodifiableMap(Zone::getId, Function.identity()));
+        this.byName = this.zones.stream().collect(Collectors.toUnmodifiableMap(Zone::toString, Function.identity()));
+        this.byCityAndProvince = this.zones.stream().collect(Collectors.toUnmodifiableMap(zone -> key(zone.getCity(), zone.getProvince()), Function.identity()));
+        this.whitelistJson = serializer.apply(this.zones.stream().map(Zone::toString).collect(Collectors.toList()));
+    }
+
+    public Zone getZone(Long id) {
+        return byId.get(id);
+    }
+
+    public Zone getZone(String name) {
+        return name == null ? null : byName.get(name);
+    }
+
+    public Zone getZone(String city, String province) {
+        return byCityAndProvince.get(key(city, province));
+    }
+
+    public List<Zone> getZones() {
+        return zones;
+    }
+
+    public int size() {
+        return zones.size();
+    }
+
+    public byte[] getWhitelistJson() {
+        return whitelistJson.clone();
+    }
+
+    private static String key(String city, String province) {
+        return city + "/" + province;
+    }
+}
@@ -0,0 +1,26 @@
+package com.jinstudy.modules.zone;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+public class ZoneController {
+
+    private final ZoneService zoneService;
+
+    @GetMapping("/zones/whitelist")
+    public ResponseEntity<byte[]> whitelist(){
+        // 미리 직렬화해 둔 JSON 을 그대로 내려준다. 지역 목록은 거의 바뀌지 않으니까 브라우저에서 한 시간 동안 캐싱한다.
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)))
+                .body(zoneService.getCatalog().getWhitelistJson());
+    }
+}
@@ -0,0 +1,44 @@
+package com.jinstudy.modules.zone;
+
+import com.jinstudy.infra.config.AppProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+// 예전에는 ZoneService 의 @PostConstruct 에서 지역을 넣어서 지역을 다 넣을 때까지 애플리케이션이 뜨지 않았다.
+// 지금은 애플리케이션이 뜬 뒤에 app.zone.import-location 의 파일을 백그라운드로 넣고, 다 넣으면 ZoneCatalog 를 다시 만든다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ZoneDataLoader implements ApplicationRunner {
+
+    private final ZoneService zoneService;
+    private final ZoneRepository zoneRepository;
+    private final ResourceLoader resourceLoader;
+    private final AppProperties appProperties;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        AppProperties.Zone properties = appProperties.getZone();
+        if(!properties.isForceImport() && zoneRepository.count() > 0){ // Zone 테이블에 지역정보가 없는 경우에만 새로 넣어준다.
+            return;
+        }
+
+        Resource resource = resourceLoader.getResource(properties.getImportLocation());
+        if(!properties.isImportAsync()){
+            zoneService.importZones(resource);
+            return;
+        }
+        zoneService.importZonesAsync(resource).whenComplete((result, e) -> {
+            if(e != null){
+                log.error("failed to import zones from " + resource.getDescription(), e);
+            }
+        });
+    }
+}
@@ -5,17 +5,5 @@ import lombok.Data;
 @Data
 public class ZoneForm {
 
-    private String zoneName;
-
-    public String getCityName(){ return zoneName.substring(0,zoneName.indexOf("(")); }
-
-    public String getLocalNameOfCity(){ return zoneName.substring(zoneName.indexOf("(")+1, zoneName.indexOf(")")); }
-
-    public String getProvinceName(){ return zoneName.substring(zoneName.indexOf("/")+1); }
-
-//    public Zone getZone(){ // 이건 왜 만든거지??
-//        return Zone.builder().city(getCityName())
-//                .localNameOfCity(getLocalNameOfCity())
-//                .province(getProvinceName()).build();
-//    }
+    private String zoneName; // tagify whitelist 에 있는 이름 그대로 ("Seoul(서울특별시)/none"), ZoneCatalog 에서 이 이름으로 찾는다.
 }
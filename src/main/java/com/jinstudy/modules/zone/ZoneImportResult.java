@@ -0,0 +1,33 @@
+package com.jinstudy.modules.zone;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ZoneImportResult {
+
+    private final long read; // 형식에 맞는 줄 수
+
+    private final long inserted; // 새로 넣은 지역
+
+    private final long updated; // 이미 있던 지역 중 한글 이름이 바뀐 지역
+
+    private final long skipped; // 형식에 맞지 않아서 건너뛴 줄
+
+    private final long elapsedMillis;
+
+    // ZoneImporter 가 파일을 읽는 동안 세는 용도
+    static class Counter {
+        long read;
+        long inserted;
+        long updated;
+        long skipped;
+
+        ZoneImportResult toResult(long elapsedMillis) {
+            return new ZoneImportResult(read, inserted, updated, skipped, elapsedMillis);
+        }
+    }
+}
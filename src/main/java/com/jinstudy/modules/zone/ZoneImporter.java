@@ -0,0 +1,131 @@
+package com.jinstudy.modules.zone;
+
+import com.jinstudy.infra.jpa.IdSequences;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// 지역 CSV(도시,도시 한글 이름,도) 를 한 줄씩 읽어서 JDBC batch 로 넣는다. 이미 있는 지역(city, province)은 한글 이름만 고친다.
+// - resource.getFile() 은 jar 로 패키징하면 쓸 수 없어서 getInputStream() 으로 읽는다. (classpath:, file: 모두 가능)
+// - 파일 전체를 메모리에 올리지 않고 BATCH_SIZE 줄씩 읽고 넣기 때문에 수십만 줄짜리 파일도 넣을 수 있다.
+// - saveAll() 은 row 마다 시퀀스 조회 + insert 를 따로 보내지만, 여기서는 insert 문 안에서 시퀀스를 읽어서 batch 한 번에 보낸다.
+// - batch 마다 트랜잭션을 따로 커밋한다. 중간에 실패해도 다시 실행하면 이미 들어간 지역은 건너뛴다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ZoneImporter {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final int PROGRESS_INTERVAL = 50_000; // 이 줄 수 만큼 넣을 때마다 진행 상황을 로그로 남긴다.
+
+    // province 는 null 일 수 있어서 coalesce 로 비교한다. (null = null 은 참이 아니다)
+    private static final String UPDATE_SQL = "update zone set local_name_of_city = ? " +
+            "where city = ? and coalesce(province, '') = ? and local_name_of_city <> ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ZoneImportResult importZones(Resource resource) throws IOException {
+        String insertSql = "insert into zone (id, city, local_name_of_city, province) select " + IdSequences.nextValueExpression(entityManagerFactory, Zone.class) + ", ?, ?, ? " +
+                "where not exists (select 1 from zone where city = ? and coalesce(province, '') = ?)";
+
+        long start = System.currentTimeMillis();
+        ZoneImportResult.Counter counter = new ZoneImportResult.Counter();
+        List<ZoneRow> batch = new ArrayList<>(BATCH_SIZE);
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))){
+            String line;
+            int lineNumber = 0;
+            while((line = reader.readLine()) != null){
+                lineNumber++;
+                ZoneRow row = ZoneRow.parse(lineNumber == 1 ? stripBom(line) : line);
+                if(row == null){
+                    if(!line.isBlank()){
+                        counter.skipped++;
+                        log.debug("skipped malformed zone line {}: {}", lineNumber, line);
+                    }
+                    continue;
+                }
+                batch.add(row);
+                if(batch.size() == BATCH_SIZE){
+                    upsert(batch, insertSql, counter);
+                    batch.clear();
+                    if(counter.read % PROGRESS_INTERVAL == 0){
+                        log.info("importing zones from {}: {} rows ({} rows/s)", resource.getDescription(), counter.read,
+                                counter.read * 1000 / Math.max(1, System.currentTimeMillis() - start));
+                    }
+                }
+            }
+        }
+        if(!batch.isEmpty()){
+            upsert(batch, insertSql, counter);
+        }
+
+        ZoneImportResult result = counter.toResult(System.currentTimeMillis() - start);
+        log.info("imported zones from {}: {}", resource.getDescription(), result);
+        return result;
+    }
+
+    private void upsert(List<ZoneRow> batch, String insertSql, ZoneImportResult.Counter counter) {
+        List<Object[]> updates = new ArrayList<>(batch.size());
+        List<Object[]> inserts = new ArrayList<>(batch.size());
+        for(ZoneRow row : batch){
+            String province = row.province == null ? "" : row.province;
+            updates.add(new Object[]{row.localNameOfCity, row.city, province, row.localNameOfCity});
+            inserts.add(new Object[]{row.city, row.localNameOfCity, row.province, row.city, province});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            counter.updated += sum(jdbcTemplate.batchUpdate(UPDATE_SQL, updates));
+            counter.inserted += sum(jdbcTemplate.batchUpdate(insertSql, inserts));
+        });
+        counter.read += batch.size();
+    }
+
+    private static int sum(int[] counts) {
+        int sum = 0;
+        for(int count : counts){
+            if(count > 0){ // 드라이버가 건수를 모를 때는 음수(Statement.SUCCESS_NO_INFO)를 준다.
+                sum += count;
+            }
+        }
+        return sum;
+    }
+
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private static class ZoneRow {
+        private final String city;
+        private final String localNameOfCity;
+        private final String province;
+
+        private ZoneRow(String city, String localNameOfCity, String province) {
+            this.city = city;
+            this.localNameOfCity = localNameOfCity;
+            this.province = province;
+        }
+
+        // 도시,도시 한글 이름[,도] 형식이 아니면 null
+        private static ZoneRow parse(String line) {
+            String[] split = line.split(",", -1);
+            if(split.length < 2 || split.length > 3 || split[0].isBlank() || split[1].isBlank()){
+                return null;
+            }
+            String province = split.length == 3 && !split[2].isBlank() ? split[2].trim() : null;
+            return new ZoneRow(split[0].trim(), split[1].trim(), province);
+        }
+    }
+}
@@ -1,37 +1,62 @@
 package com.jinstudy.modules.zone;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
+// ZoneCatalog 를 꺼내는 것만으로 트랜잭션(DB 커넥션)을 열지 않도록 클래스에 @Transactional 을 붙이지 않는다. (리포지토리 메서드는 각자 트랜잭션)
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class ZoneService {
 
     private final ZoneRepository zoneRepository;
+    private final ObjectMapper objectMapper;
+    private final ZoneImporter zoneImporter;
+
+    private volatile ZoneCatalog catalog;
 
     @PostConstruct
-    public void initZoneData() throws IOException { //TODO main 실행환경에서 작동하는 코드말고 패키징 시 실행가능한 코드로 변경해야하나?? 나중에 배포하고 에러나면 참고
-        if (zoneRepository.count() == 0) { // Zone 테이블에 지역정보가 없는 경우에 새로 데이터를 넣어준다.
-            Resource resource = new ClassPathResource("zonelist_kr.csv");
-            List<Zone> zoneList = Files.readAllLines(resource.getFile().toPath(), StandardCharsets.UTF_8).stream()
-                    .map(line -> {
-                        String[] split = line.split(",");
-                        return Zone.builder().city(split[0]).localNameOfCity(split[1]).province(split[2]).build();
-                    }).collect(Collectors.toList());
-            zoneRepository.saveAll(zoneList);
-        }
+    public void initCatalog() {
+        // 지역 데이터는 애플리케이션이 뜬 뒤에 ZoneDataLoader 가 넣는다. 그 전까지는 DB 에 있는 지역(처음 실행하면 없음)으로 만들어 둔다.
+        refreshCatalog();
+    }
+
+    // CSV 파일(classpath:, file:)의 지역을 넣고 ZoneCatalog 를 다시 만든다. 이미 있는 지역은 건너뛰기 때문에 여러 번 실행해도 된다.
+    public ZoneImportResult importZones(Resource resource) throws IOException {
+        ZoneImportResult result = zoneImporter.importZones(resource);
+        refreshCatalog();
+        return result;
     }
 
+    // 큰 파일을 넣는 동안 애플리케이션 시작이나 요청 처리를 막지 않도록 다른 스레드에서 넣는다.
+    @Async
+    public CompletableFuture<ZoneImportResult> importZonesAsync(Resource resource) throws IOException {
+        return CompletableFuture.completedFuture(importZones(resource));
+    }
 
+    // 지역 설정 화면과 지역 추가/삭제 요청은 DB 대신 ZoneCatalog 에서 찾는다.
+    public ZoneCatalog getCatalog() {
+        return catalog;
+    }
+
+    // 지역 데이터를 새로 넣었을 때 다시 만든다.
+    public void refreshCatalog() {
+        catalog = new ZoneCatalog(zoneRepository.findAll(), this::toJson);
+    }
+
+    private byte[] toJson(List<String> names) {
+        try {
+            return objectMapper.writeValueAsBytes(names);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -15,12 +15,13 @@ public class PackageDependencyTest { // 패키지간의 의존 관계(아키텍
     private static final String EVENT = "..modules.event..";
     private static final String TAG = "..modules.tag..";
     private static final String ZONE = "..modules.zone..";
+    private static final String MAIN = "..modules.main..";
 
     @ArchTest
     ArchRule studyPackageRule = classes().that().resideInAPackage(STUDY)
             .should().onlyBeAccessed().byClassesThat()
-            .resideInAnyPackage(STUDY,EVENT);
-    // study 패키지 안에 있는 클래스들은 study 패키지 또는 event 패키지 내부의 클래스들에 의해서만 참조될 수 있어야함 -> 이에 대한 테스트를 진행하는 것.
+            .resideInAnyPackage(STUDY,EVENT,MAIN);
+    // study 패키지 안에 있는 클래스들은 study, event 패키지 또는 홈 화면(main) 패키지 내부의 클래스들에 의해서만 참조될 수 있어야함 -> 이에 대한 테스트를 진행하는 것.
 
     @ArchTest
     ArchRule eventPackageRule = classes().that().resideInAPackage(EVENT)
@@ -13,6 +13,9 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 @AutoConfigureMockMvc
 @Transactional
-@SpringBootTest
+@SpringBootTest(properties = {
+        "app.zone.import-async=false", // 테스트가 시작되기 전에 지역 데이터가 모두 들어있도록
+        "app.image.location=${java.io.tmpdir}/jinstudy-test/images" // 테스트에서 올린 이미지는 지워져도 괜찮다.
+})
 public @interface MockMvcTest {
 }
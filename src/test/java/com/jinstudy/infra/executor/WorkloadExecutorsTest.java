@@ -0,0 +1,102 @@
+package com.jinstudy.infra.executor;
+
+import com.jinstudy.infra.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadExecutorsTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    WorkloadExecutors workloadExecutors = new WorkloadExecutors(meterRegistry);
+    CountDownLatch release = new CountDownLatch(1);
+    ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void afterEach() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @DisplayName("CALLER_RUNS - 스레드와 대기 큐가 가득 차면 넘긴 스레드가 직접 실행한다")
+    @Test
+    void callerRuns() throws Exception {
+        executor = workloadExecutors.create("test-caller-runs", new AppProperties.Pool(1, 1, 1, RejectionPolicy.CALLER_RUNS));
+        fill();
+
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertSame(Thread.currentThread(), ranOn.get());
+        assertEquals(1, rejected("test-caller-runs"));
+        assertEquals(1, meterRegistry.get("executor.active").tag("name", "test-caller-runs").gauge().value());
+        assertEquals(1, meterRegistry.get("executor.queued").tag("name", "test-caller-runs").gauge().value());
+    }
+
+    @DisplayName("DEFER - 스레드와 대기 큐가 가득 차면 실행하지 않고 TaskRejectedException")
+    @Test
+    void defer() throws Exception {
+        executor = workloadExecutors.create("test-defer", new AppProperties.Pool(1, 1, 1, RejectionPolicy.DEFER));
+        fill();
+
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> fail("should not run")));
+        assertEquals(1, rejected("test-defer"));
+    }
+
+    @DisplayName("대기 큐에서 기다린 시간과 실행 시간을 기록한다")
+    @Test
+    void latency() throws Exception {
+        executor = workloadExecutors.create("test-latency", new AppProperties.Pool(1, 1, 10, RejectionPolicy.CALLER_RUNS));
+        CountDownLatch done = new CountDownLatch(2);
+        executor.execute(() -> sleep(50, done));
+        executor.execute(() -> sleep(0, done)); // 첫 번째 작업이 끝날 때까지 기다린다.
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS);
+
+        assertEquals(2, meterRegistry.get("executor").tag("name", "test-latency").timer().count());
+        assertTrue(meterRegistry.get("executor").tag("name", "test-latency").timer().max(TimeUnit.MILLISECONDS) >= 50);
+        assertTrue(meterRegistry.get("executor.idle").tag("name", "test-latency").timer().max(TimeUnit.MILLISECONDS) >= 40);
+    }
+
+    // 스레드 하나는 일하는 중, 대기 큐 한 칸은 찬 상태로 만든다.
+    private void fill() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> await(release));
+    }
+
+    private double rejected(String name) {
+        return meterRegistry.get("executor.rejected").tag("name", name).counter().count();
+    }
+
+    private static void sleep(long millis, CountDownLatch done) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        done.countDown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.jinstudy.infra.image;
+
+import com.jinstudy.infra.MockMvcTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@MockMvcTest
+class ImageControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ImageStore imageStore;
+
+    private final byte[] png = {(byte) 0x89, 'P', 'N', 'G', 1, 2, 3};
+    private final String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString(png);
+
+    @DisplayName("data URL 이미지 저장 - 같은 내용이면 같은 URL")
+    @Test
+    void store_same_content_same_url() {
+        String url = imageStore.store(dataUrl);
+
+        assertTrue(url.startsWith(ImageStore.URL_PREFIX));
+        assertEquals(url, imageStore.store(dataUrl));
+        assertEquals(url, imageStore.store(url)); // 이미 저장된 이미지의 URL은 그대로
+        assertNull(imageStore.store(""));
+        assertThrows(IllegalArgumentException.class, () -> imageStore.store("data:text/html;base64,AAAA"));
+    }
+
+    @DisplayName("이미지 조회 - ETag, Cache-Control 헤더와 함께 응답")
+    @Test
+    void image() throws Exception {
+        String url = imageStore.store(dataUrl);
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public"))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(png));
+    }
+
+    @DisplayName("이미지 조회 - ETag 가 같으면 304")
+    @Test
+    void image_not_modified() throws Exception {
+        String url = imageStore.store(dataUrl);
+        String key = url.substring(ImageStore.URL_PREFIX.length());
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"" + key + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @DisplayName("이미지 조회 - 잘못된 키")
+    @Test
+    void image_not_found() throws Exception {
+        mockMvc.perform(get(ImageStore.URL_PREFIX + "not-a-hash.png"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,150 @@
+package com.jinstudy.infra.mail;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.jinstudy.infra.config.AppProperties;
+import com.jinstudy.infra.executor.WorkloadExecutors;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 메일 큐에 넣고 커밋하면 워커가 SMTP(GreenMail, 테스트 안에서 띄우는 SMTP 서버)로 보내는지.
+// 메일은 트랜잭션이 커밋된 뒤에 보내기 때문에 @Transactional 테스트가 아니다. -> 테스트가 끝나면 큐를 직접 지워준다.
+// poll 주기를 길게 해서 재시도는 테스트에서 직접(dispatchDueMails) 한다.
+@SpringBootTest(properties = {"app.mail.poll-interval=1h", "app.mail.initial-backoff=0s", "app.mail.max-attempts=2"})
+class MailQueueTest {
+
+    @Autowired EmailService emailService;
+    @Autowired MailQueueWorker mailQueueWorker;
+    @Autowired OutboundMailRepository outboundMailRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    private final String recipient = UUID.randomUUID() + "@email.com";
+    private GreenMail smtp;
+
+    @TestConfiguration
+    static class SmtpTransportConfig {
+        @Bean @Primary
+        EmailTransport smtpTransport(AppProperties appProperties) {
+            JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+            javaMailSender.setHost("localhost");
+            javaMailSender.setPort(ServerSetupTest.SMTP.getPort());
+            return new PooledSmtpEmailTransport(javaMailSender, appProperties);
+        }
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        smtp = new GreenMail(ServerSetupTest.SMTP);
+        smtp.start();
+    }
+
+    @AfterEach
+    void afterEach() {
+        smtp.stop();
+        outboundMailRepository.deleteAll(find());
+    }
+
+    @DisplayName("커밋되면 바로 보내고 SENT 로 바꾼다")
+    @Test
+    void send_after_commit() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> emailService.sendEmail(message("가입 인증")));
+
+        assertTrue(smtp.waitForIncomingEmail(5000, 1));
+        MimeMessage received = smtp.getReceivedMessages()[0];
+        assertEquals("가입 인증", received.getSubject());
+        assertEquals(recipient, received.getAllRecipients()[0].toString());
+
+        OutboundMail mail = awaitStatus(OutboundMailStatus.SENT);
+        assertEquals(1, mail.getAttempts());
+        assertNotNull(mail.getSentAt());
+    }
+
+    @DisplayName("메일을 넣은 트랜잭션이 롤백되면 보내지 않는다")
+    @Test
+    void rollback_discards_mail() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendEmail(message("롤백"));
+            status.setRollbackOnly();
+        });
+
+        assertFalse(smtp.waitForIncomingEmail(500, 1));
+        assertTrue(find().isEmpty());
+    }
+
+    @DisplayName("SMTP 서버에 보내지 못하면 다시 보내고, max-attempts 번 실패하면 DEAD 로 남긴다")
+    @Test
+    void retry_then_dead_letter() throws Exception {
+        smtp.stop();
+
+        transactionTemplate.executeWithoutResult(status -> emailService.sendEmail(message("재시도")));
+        OutboundMail failed = awaitStatus(OutboundMailStatus.PENDING, 1);
+        assertNotNull(failed.getLastError());
+
+        assertEquals(1, mailQueueWorker.dispatchDueMails()); // backoff 0 -> 바로 다시 보낸다.
+        OutboundMail dead = awaitStatus(OutboundMailStatus.DEAD, 2);
+        assertNull(dead.getSentAt());
+        assertEquals(0, mailQueueWorker.dispatchDueMails()); // DEAD 는 더 보내지 않는다.
+    }
+
+    @DisplayName("실패할 때마다 기다리는 시간이 두 배가 되고 max-backoff 를 넘지 않는다")
+    @Test
+    void backoff() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getMail().setInitialBackoff(Duration.ofSeconds(30));
+        appProperties.getMail().setMaxBackoff(Duration.ofMinutes(5));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MailQueueWorker worker = new MailQueueWorker(outboundMailRepository, message -> {}, appProperties, new WorkloadExecutors(meterRegistry), meterRegistry);
+        try {
+            assertEquals(Duration.ofSeconds(30), worker.backoff(1));
+            assertEquals(Duration.ofSeconds(60), worker.backoff(2));
+            assertEquals(Duration.ofSeconds(240), worker.backoff(4));
+            assertEquals(Duration.ofMinutes(5), worker.backoff(5));
+            assertEquals(Duration.ofMinutes(5), worker.backoff(100));
+        } finally {
+            worker.destroy();
+        }
+    }
+
+    private EmailMessage message(String subject) {
+        return EmailMessage.builder().to(recipient).subject(subject).message("<p>" + subject + "</p>").build();
+    }
+
+    private List<OutboundMail> find() {
+        return outboundMailRepository.findAll().stream().filter(mail -> mail.getRecipient().equals(recipient)).collect(Collectors.toList());
+    }
+
+    private OutboundMail awaitStatus(OutboundMailStatus status) throws InterruptedException {
+        return awaitStatus(status, -1);
+    }
+
+    // 워커 스레드가 결과를 기록할 때까지 기다린다.
+    private OutboundMail awaitStatus(OutboundMailStatus status, int attempts) throws InterruptedException {
+        for(int i = 0; i < 100; i++){
+            List<OutboundMail> mails = find();
+            if(mails.size() == 1 && mails.get(0).getStatus() == status && (attempts < 0 || mails.get(0).getAttempts() == attempts)){
+                return mails.get(0);
+            }
+            Thread.sleep(50);
+        }
+        fail("mail to " + recipient + " did not become " + status + ", " + find());
+        return null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.jinstudy.infra.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 알림 메일 본문을 만드는 방법별 처리량 비교. 예전 방법: 메일마다 TemplateEngine.process. 지금: MailTemplate.renderAll
+// 기본은 받는 사람 10000명이고, mvn test -Dbenchmark=true -Dbenchmark.recipients=100000 으로 늘릴 수 있다.
+// 빌드할 때마다 돌지 않도록 -Dbenchmark=true 로 실행할 때만 돈다.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+@SpringBootTest
+class MailTemplateBenchmarkTest {
+
+    private static final int RECIPIENTS = Integer.getInteger("benchmark.recipients", 10000);
+    private static final int ROUNDS = 5;
+    private static final Map<String, Object> FIXED = Map.of("host", "http://localhost:8080", "linkName", "스터디 보기", "message", "새 스터디가 생겼습니다.");
+
+    @Autowired TemplateEngine templateEngine;
+    @Autowired MailTemplates mailTemplates;
+
+    @DisplayName("같은 본문을 만들고, 초당 만드는 메일 수 비교")
+    @Test
+    void render_throughput() {
+        List<Map<String, Object>> recipients = new ArrayList<>(RECIPIENTS);
+        for(int i = 0; i < RECIPIENTS; i++){
+            recipients.add(Map.of("nickname", "user" + i, "link", "/study/study" + (i % 100) + "?from=mail&to=" + i));
+        }
+        MailTemplate template = mailTemplates.get("mail/simple-link", FIXED, "nickname", "link");
+        assertEquals(process(recipients.subList(0, 100)), template.renderAll(recipients.subList(0, 100)));
+
+        for(int round = 1; round <= ROUNDS; round++){ // 앞의 라운드는 JIT 워밍업
+            long start = System.nanoTime();
+            process(recipients);
+            long processNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            template.renderAll(recipients);
+            long renderNanos = System.nanoTime() - start;
+
+            log.info("round {}: TemplateEngine.process {} mails/s, MailTemplate.renderAll {} mails/s ({} recipients)", round,
+                    RECIPIENTS * 1_000_000_000L / processNanos, RECIPIENTS * 1_000_000_000L / renderNanos, RECIPIENTS);
+        }
+    }
+
+    private List<String> process(List<Map<String, Object>> recipients) {
+        List<String> rendered = new ArrayList<>(recipients.size());
+        for(Map<String, Object> values : recipients){
+            Context context = new Context();
+            context.setVariables(FIXED);
+            context.setVariables(values);
+            rendered.add(templateEngine.process("mail/simple-link", context));
+        }
+        return rendered;
+    }
+}
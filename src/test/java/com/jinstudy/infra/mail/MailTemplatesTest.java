@@ -0,0 +1,70 @@
+package com.jinstudy.infra.mail;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MailTemplatesTest {
+
+    private static final Map<String, Object> FIXED = Map.of("host", "http://localhost:8080", "linkName", "링크", "message", "메시지 <b>");
+
+    @Autowired MailTemplates mailTemplates;
+    @Autowired TemplateEngine templateEngine;
+
+    @DisplayName("TemplateEngine.process 와 같은 본문 - 받는 사람마다 바뀌는 값도 똑같이 이스케이프한다")
+    @Test
+    void render_same_as_templateEngine() {
+        MailTemplate template = mailTemplates.get("mail/simple-link", FIXED, "nickname", "link");
+
+        Map<String, Object> values = Map.of("nickname", "<script>'jin' & \"sejin\"</script>", "link", "/check-email-token?token=abc&email=a@b.com");
+        assertEquals(process(values), template.render(values));
+        assertSame(template, mailTemplates.get("mail/simple-link", FIXED, "nickname", "link")); // 캐싱
+    }
+
+    @DisplayName("받는 사람 목록을 한 번에")
+    @Test
+    void renderAll() {
+        MailTemplate template = mailTemplates.get("mail/simple-link", FIXED, "nickname", "link");
+        List<Map<String, Object>> recipients = List.of(
+                Map.of("nickname", "jin", "link", "/a?x=1&y=2"),
+                Map.of("nickname", "sejin", "link", "/b"),
+                Map.of("nickname", "", "link", ""));
+
+        List<String> rendered = template.renderAll(recipients);
+
+        assertEquals(3, rendered.size());
+        for(int i = 0; i < recipients.size(); i++){
+            assertEquals(process(recipients.get(i)), rendered.get(i));
+        }
+    }
+
+    @DisplayName("받는 사람마다 바뀌는 값이 없으면 IllegalArgumentException")
+    @Test
+    void missing_value() {
+        MailTemplate template = mailTemplates.get("mail/simple-link", FIXED, "nickname", "link");
+
+        assertThrows(IllegalArgumentException.class, () -> template.render(Map.of("nickname", "jin")));
+    }
+
+    @DisplayName("받는 사람마다 바뀌는 값에 따라 본문이 달라지는 템플릿은 컴파일할 수 없다")
+    @Test
+    void variable_in_condition() {
+        assertThrows(IllegalArgumentException.class, () -> mailTemplates.get("mail/conditional-test", Map.of(), "nickname"));
+    }
+
+    private String process(Map<String, Object> values) {
+        Context context = new Context();
+        context.setVariables(FIXED);
+        context.setVariables(values);
+        return templateEngine.process("mail/simple-link", context);
+    }
+}
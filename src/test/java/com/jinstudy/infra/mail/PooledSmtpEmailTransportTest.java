@@ -0,0 +1,115 @@
+package com.jinstudy.infra.mail;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.jinstudy.infra.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 테스트 안에서 띄운 SMTP 서버(GreenMail)로 보낸다.
+class PooledSmtpEmailTransportTest {
+
+    private final AppProperties appProperties = new AppProperties();
+    private final AtomicInteger connects = new AtomicInteger();
+    private GreenMail smtp;
+    private PooledSmtpEmailTransport transport;
+
+    @BeforeEach
+    void beforeEach() {
+        smtp = new GreenMail(ServerSetupTest.SMTP);
+        smtp.start();
+        appProperties.getMail().setSmtpPoolSize(1);
+        appProperties.getMail().setMaxMessagesPerSecond(0);
+        transport = newTransport();
+    }
+
+    @AfterEach
+    void afterEach() {
+        transport.destroy();
+        smtp.stop();
+    }
+
+    @DisplayName("묶음은 연결 하나로 보내고, 다음 묶음도 열어둔 연결을 다시 쓴다")
+    @Test
+    void sendAll_reuses_connection() {
+        List<RuntimeException> failures = transport.sendAll(messages(20));
+        transport.sendAll(messages(5));
+        transport.send(messages(1).get(0));
+
+        assertTrue(failures.stream().allMatch(failure -> failure == null));
+        assertTrue(smtp.waitForIncomingEmail(5000, 26));
+        assertEquals(1, connects.get());
+    }
+
+    @DisplayName("서버가 끊은 연결은 버리고 새로 연결한다")
+    @Test
+    void reconnect_after_server_restart() {
+        transport.sendAll(messages(3));
+        smtp.stop();
+        smtp = new GreenMail(ServerSetupTest.SMTP);
+        smtp.start();
+
+        List<RuntimeException> failures = transport.sendAll(messages(3));
+
+        assertTrue(failures.stream().allMatch(failure -> failure == null));
+        assertTrue(smtp.waitForIncomingEmail(5000, 3));
+        assertEquals(2, connects.get());
+    }
+
+    @DisplayName("서버에 연결할 수 없으면 메일마다 실패 원인을 돌려준다")
+    @Test
+    void connection_failure() {
+        smtp.stop();
+
+        List<RuntimeException> failures = transport.sendAll(messages(3));
+
+        assertEquals(3, failures.size());
+        assertTrue(failures.stream().allMatch(failure -> failure != null));
+        assertThrows(RuntimeException.class, () -> transport.send(messages(1).get(0)));
+    }
+
+    @DisplayName("초당 보내는 메일 수가 max-messages-per-second 를 넘지 않는다")
+    @Test
+    void rate_limit() {
+        appProperties.getMail().setMaxMessagesPerSecond(20);
+        transport.destroy();
+        transport = newTransport();
+
+        long start = System.nanoTime();
+        transport.sendAll(messages(11)); // 첫 메일은 바로, 나머지 10통은 50ms 간격
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 450, "elapsed " + elapsedMillis + "ms");
+        assertTrue(smtp.waitForIncomingEmail(5000, 11));
+    }
+
+    private PooledSmtpEmailTransport newTransport() {
+        // 새 연결을 맺을 때만 서버 주소를 읽는다. -> 연결을 몇 번 맺었는지 센다.
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl() {
+            @Override
+            public String getHost() {
+                connects.incrementAndGet();
+                return super.getHost();
+            }
+        };
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(ServerSetupTest.SMTP.getPort());
+        return new PooledSmtpEmailTransport(javaMailSender, appProperties);
+    }
+
+    private List<EmailMessage> messages(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> EmailMessage.builder().to("user" + i + "@email.com").subject("알림 " + i).message("<p>" + i + "</p>").build())
+                .collect(Collectors.toList());
+    }
+}
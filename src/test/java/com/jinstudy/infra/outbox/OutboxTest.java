@@ -0,0 +1,185 @@
+package com.jinstudy.infra.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 이벤트는 트랜잭션이 커밋된 뒤에 전달하기 때문에 @Transactional 테스트가 아니다. -> 테스트가 끝나면 outbox 를 직접 지워준다.
+// poll 주기를 길게 해서 재시도는 테스트에서 직접(dispatch) 한다.
+@SpringBootTest(properties = {"app.outbox.poll-interval=1h", "app.outbox.initial-backoff=0s", "app.outbox.max-attempts=2"})
+class OutboxTest {
+
+    private static final List<TestEvent> received = new CopyOnWriteArrayList<>();
+
+    @Autowired Outbox outbox;
+    @Autowired OutboxDispatcher outboxDispatcher;
+    @Autowired OutboxEventRepository outboxEventRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired MeterRegistry meterRegistry;
+
+    private final String key = UUID.randomUUID().toString();
+
+    @Getter @NoArgsConstructor @AllArgsConstructor
+    static class TestEvent {
+        private String key;
+        private boolean fail;
+    }
+
+    @TestConfiguration
+    static class TestHandlerConfig {
+        @Bean
+        OutboxEventHandler<TestEvent> testEventHandler() {
+            return new OutboxEventHandler<>() {
+                @Override
+                public Class<TestEvent> getEventType() {
+                    return TestEvent.class;
+                }
+
+                @Override
+                public void handle(TestEvent event) {
+                    received.add(event);
+                    if(event.isFail()){
+                        throw new IllegalStateException("handler failed");
+                    }
+                }
+            };
+        }
+    }
+
+    @AfterEach
+    void afterEach() {
+        outboxEventRepository.deleteAll(find());
+    }
+
+    @DisplayName("커밋되면 바로 핸들러에 전달하고 DONE 으로 바꾼다")
+    @Test
+    void dispatch_after_commit() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.publish(new TestEvent(key, false));
+            outbox.publish(new TestEvent(key, false));
+        });
+
+        awaitStatus(OutboxEventStatus.DONE, 1);
+        assertEquals(2, received(key).size());
+        find().forEach(event -> assertNotNull(event.getProcessedAt()));
+        assertTrue(meterRegistry.get("outbox.lag").tag("type", "TestEvent").timer().count() >= 2);
+    }
+
+    @DisplayName("이벤트를 넣은 트랜잭션이 롤백되면 전달하지 않는다")
+    @Test
+    void rollback_discards_event() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.publish(new TestEvent(key, false));
+            status.setRollbackOnly();
+        });
+
+        outboxDispatcher.dispatch();
+        assertTrue(find().isEmpty());
+        assertTrue(received(key).isEmpty());
+    }
+
+    @DisplayName("트랜잭션 밖에서는 발행할 수 없다")
+    @Test
+    void publish_requires_transaction() {
+        assertThrows(IllegalTransactionStateException.class, () -> outbox.publish(new TestEvent(key, false)));
+    }
+
+    @DisplayName("핸들러가 실패하면 다시 전달하고, max-attempts 번 실패하면 DEAD 로 남긴다")
+    @Test
+    void retry_then_dead_letter() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> outbox.publish(new TestEvent(key, true)));
+        OutboxEvent failed = awaitStatus(OutboxEventStatus.PENDING, 1).get(0);
+        assertTrue(failed.getLastError().contains("handler failed"));
+
+        outboxDispatcher.dispatch(); // backoff 0 -> 바로 다시 전달한다.
+        awaitStatus(OutboxEventStatus.DEAD, 2);
+        assertEquals(2, received(key).size()); // 최소 한 번 전달 -> 같은 이벤트를 다시 받는다.
+
+        outboxDispatcher.dispatch(); // DEAD 는 더 전달하지 않는다.
+        assertEquals(2, received(key).size());
+    }
+
+    @DisplayName("같이 꺼낸 이벤트 중 하나가 실패해도 나머지는 DONE 이 되고, 실패한 이벤트만 다시 전달한다")
+    @Test
+    void failure_is_per_event() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.publish(new TestEvent(key, false));
+            outbox.publish(new TestEvent(key, true));
+            outbox.publish(new TestEvent(key, false));
+        });
+
+        for(int i = 0; i < 100 && find().stream().anyMatch(event -> event.getAttempts() == 0); i++){
+            Thread.sleep(50);
+        }
+        List<OutboxEvent> events = find();
+        assertEquals(List.of(OutboxEventStatus.DONE, OutboxEventStatus.PENDING, OutboxEventStatus.DONE),
+                events.stream().sorted(Comparator.comparing(OutboxEvent::getId)).map(OutboxEvent::getStatus).collect(Collectors.toList()));
+
+        outboxDispatcher.dispatch(); // 실패한 이벤트만 다시 받는다.
+        assertEquals(4, received(key).size());
+    }
+
+    @DisplayName("lease 는 아직 처리하지 않은 이벤트만 늘린다")
+    @Test
+    void extendLease_only_processing_events() {
+        String claimedBy = UUID.randomUUID().toString();
+        OutboxEvent processing = claimed(claimedBy, OutboxEventStatus.PROCESSING);
+        OutboxEvent done = claimed(claimedBy, OutboxEventStatus.DONE);
+        LocalDateTime leaseUntil = LocalDateTime.now().plusHours(1).withNano(0);
+
+        assertEquals(1, outboxEventRepository.extendLease(claimedBy, OutboxEventStatus.PROCESSING, leaseUntil));
+        assertEquals(leaseUntil, outboxEventRepository.findById(processing.getId()).orElseThrow().getNextAttemptAt());
+        assertNotEquals(leaseUntil, outboxEventRepository.findById(done.getId()).orElseThrow().getNextAttemptAt());
+        assertEquals(0, outboxEventRepository.extendLease(UUID.randomUUID().toString(), OutboxEventStatus.PROCESSING, leaseUntil));
+    }
+
+    private OutboxEvent claimed(String claimedBy, OutboxEventStatus status) {
+        OutboxEvent event = OutboxEvent.pending(TestEvent.class.getName(), "{\"key\":\"" + key + "\"}");
+        event.setStatus(status);
+        event.setClaimedBy(claimedBy);
+        event.setNextAttemptAt(LocalDateTime.now().plusMinutes(10)); // 아직 lease 안이라서 디스패처가 꺼내지 않는다.
+        return outboxEventRepository.save(event);
+    }
+
+    private List<TestEvent> received(String key) {
+        return received.stream().filter(event -> event.getKey().equals(key)).collect(Collectors.toList());
+    }
+
+    private List<OutboxEvent> find() {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> event.getType().equals(TestEvent.class.getName()) && event.getPayload().contains(key))
+                .collect(Collectors.toList());
+    }
+
+    // 디스패처 스레드가 결과를 기록할 때까지 기다린다.
+    private List<OutboxEvent> awaitStatus(OutboxEventStatus status, int attempts) throws InterruptedException {
+        for(int i = 0; i < 100; i++){
+            List<OutboxEvent> events = find();
+            if(!events.isEmpty() && events.stream().allMatch(event -> event.getStatus() == status && event.getAttempts() == attempts)){
+                return events;
+            }
+            Thread.sleep(50);
+        }
+        fail("outbox events " + key + " did not become " + status + ", " + find());
+        return null;
+    }
+}
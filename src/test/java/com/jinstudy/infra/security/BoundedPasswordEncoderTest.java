@@ -0,0 +1,68 @@
+package com.jinstudy.infra.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final ExecutorService requests = Executors.newCachedThreadPool();
+
+    // release 될 때까지 해싱이 끝나지 않는 PasswordEncoder
+    private final PasswordEncoder slowEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "encoded:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    };
+
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slowEncoder, 1, 1);
+
+    @AfterEach
+    void afterEach() {
+        release.countDown();
+        requests.shutdownNow();
+        encoder.destroy();
+    }
+
+    @DisplayName("해싱 스레드와 대기열이 모두 차면 기다리지 않고 PasswordHashingBusyException")
+    @Test
+    void rejects_when_queue_is_full() throws Exception {
+        Future<String> running = requests.submit(() -> encoder.encode("first")); // 스레드 1개에서 실행 중
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Boolean> queued = requests.submit(() -> encoder.matches("second", "encoded:second")); // 대기열 1칸
+        waitUntilQueued();
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("third"));
+
+        release.countDown();
+        assertEquals("encoded:first", running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals("encoded:fourth", encoder.encode("fourth")); // 대기열이 비면 다시 받는다.
+    }
+
+    private void waitUntilQueued() throws InterruptedException {
+        for(int i = 0; i < 500 && encoder.getQueueSize() == 0; i++){
+            Thread.sleep(10);
+        }
+        assertEquals(1, encoder.getQueueSize());
+    }
+}
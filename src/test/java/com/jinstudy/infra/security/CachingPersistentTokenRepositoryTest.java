@@ -0,0 +1,114 @@
+package com.jinstudy.infra.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.rememberme.CookieTheftException;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenBasedRememberMeServices;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// flush 는 JdbcTemplate 으로 바로 커밋하기 때문에 @Transactional 테스트가 아니다. -> 만든 토큰은 테스트가 끝나면 직접 지워준다.
+@SpringBootTest
+class CachingPersistentTokenRepositoryTest {
+
+    @Autowired CachingPersistentTokenRepository tokenRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    private final String username = "remember-" + UUID.randomUUID();
+
+    @AfterEach
+    void afterEach() {
+        tokenRepository.removeUserTokens(username);
+    }
+
+    @DisplayName("자동 로그인으로 바뀐 토큰은 바로 쓰지 않고 flush 할 때 모아서 쓴다")
+    @Test
+    void autoLogin_updates_token_on_flush() {
+        PersistentRememberMeToken token = newToken("series-" + username, new Date());
+        tokenRepository.createNewToken(token);
+
+        UserDetails user = autoLogin(token.getSeries(), token.getTokenValue());
+
+        assertEquals(username, user.getUsername());
+        String newTokenValue = tokenRepository.getTokenForSeries(token.getSeries()).getTokenValue();
+        assertNotEquals(token.getTokenValue(), newTokenValue);
+        assertEquals(token.getTokenValue(), tokenValueInDb(token.getSeries()));
+
+        tokenRepository.flush();
+        assertEquals(newTokenValue, tokenValueInDb(token.getSeries()));
+
+        // flush 한 뒤에도 새 토큰으로 계속 자동 로그인할 수 있다.
+        assertEquals(username, autoLogin(token.getSeries(), newTokenValue).getUsername());
+    }
+
+    @DisplayName("이미 쓴 토큰으로 다시 자동 로그인하면 DB에 쓰기 전이어도 도용으로 판단하고 사용자의 토큰을 모두 지운다")
+    @Test
+    void reused_token_is_theft() {
+        PersistentRememberMeToken token = newToken("series-" + username, new Date());
+        PersistentRememberMeToken other = newToken("other-" + username, new Date());
+        tokenRepository.createNewToken(token);
+        tokenRepository.createNewToken(other);
+        autoLogin(token.getSeries(), token.getTokenValue()); // 정상 사용자
+
+        assertThrows(CookieTheftException.class, () -> autoLogin(token.getSeries(), token.getTokenValue())); // 훔친 쿠키
+
+        tokenRepository.flush(); // 지운 토큰을 다시 쓰지 않는다.
+        assertNull(tokenRepository.getTokenForSeries(token.getSeries()));
+        assertNull(tokenRepository.getTokenForSeries(other.getSeries()));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from persistent_logins where username = ?", Integer.class, username));
+    }
+
+    @DisplayName("token-validity 동안 쓰지 않은 토큰은 지운다")
+    @Test
+    void purgeExpired() {
+        PersistentRememberMeToken expired = newToken("expired-" + username, new Date(System.currentTimeMillis() - Duration.ofDays(15).toMillis()));
+        PersistentRememberMeToken fresh = newToken("fresh-" + username, new Date());
+        tokenRepository.createNewToken(expired);
+        tokenRepository.createNewToken(fresh);
+
+        tokenRepository.purgeExpired();
+
+        assertNull(tokenRepository.getTokenForSeries(expired.getSeries()));
+        assertNull(tokenValueInDb(expired.getSeries()));
+        assertEquals(fresh.getTokenValue(), tokenRepository.getTokenForSeries(fresh.getSeries()).getTokenValue());
+    }
+
+    private PersistentRememberMeToken newToken(String series, Date lastUsed) {
+        return new PersistentRememberMeToken(username, series, UUID.randomUUID().toString(), lastUsed);
+    }
+
+    private String tokenValueInDb(String series) {
+        return jdbcTemplate.query("select token from persistent_logins where series = ?",
+                rs -> rs.next() ? rs.getString(1) : null, series);
+    }
+
+    // SecurityConfig 의 rememberMe() 가 쓰는 것과 같은 구현으로 쿠키 검사(토큰 비교, 도용 감지)를 한다.
+    private UserDetails autoLogin(String series, String tokenValue) {
+        return new AutoLoginServices(tokenRepository).autoLogin(series, tokenValue);
+    }
+
+    private static class AutoLoginServices extends PersistentTokenBasedRememberMeServices {
+
+        AutoLoginServices(PersistentTokenRepository tokenRepository) {
+            super("key", name -> User.withUsername(name).password("password").roles("USER").build(), tokenRepository);
+        }
+
+        UserDetails autoLogin(String series, String tokenValue) {
+            return processAutoLoginCookie(new String[]{series, tokenValue}, new MockHttpServletRequest(), new MockHttpServletResponse());
+        }
+    }
+}
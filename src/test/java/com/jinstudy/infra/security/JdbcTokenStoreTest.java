@@ -0,0 +1,25 @@
+package com.jinstudy.infra.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.remember-me.token-store=jdbc")
+class JdbcTokenStoreTest {
+
+    @Autowired PersistentTokenRepository tokenRepository;
+    @Autowired ApplicationContext applicationContext;
+
+    @DisplayName("여러 대로 띄울 때는 토큰을 메모리에 두지 않고 JdbcTokenRepositoryImpl 로 바로 DB 를 읽고 쓴다")
+    @Test
+    void jdbc_token_store() {
+        assertTrue(tokenRepository instanceof JdbcTokenRepositoryImpl);
+        assertEquals(0, applicationContext.getBeanNamesForType(CachingPersistentTokenRepository.class).length);
+    }
+}
@@ -0,0 +1,59 @@
+package com.jinstudy.infra.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// bcrypt 강도(app.password.bcrypt-strength)별 코어당 초당 해시 수. 강도를 정할 때와 해싱 스레드 수를 정할 때 참고한다.
+// 강도가 1 오를 때마다 해시 하나에 드는 시간이 두 배가 된다. 기본은 강도마다 1초씩 돌리고, mvn test -Dbenchmark=true -Dbenchmark.millis=5000 으로 늘릴 수 있다.
+// 빌드할 때마다 돌지 않도록 -Dbenchmark=true 로 실행할 때만 돈다.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class PasswordHashingBenchmarkTest {
+
+    private static final long MILLIS = Long.getLong("benchmark.millis", 1000);
+    private static final int[] STRENGTHS = {4, 8, 10, 12};
+
+    @DisplayName("bcrypt 강도별 코어당 초당 해시 수")
+    @Test
+    void hashes_per_second_per_core() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(cores);
+        try {
+            for(int strength : STRENGTHS){
+                BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+                assertTrue(encoder.matches("password", encoder.encode("password")));
+
+                AtomicLong hashes = new AtomicLong();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MILLIS);
+                long start = System.nanoTime();
+                List<Future<?>> workers = new ArrayList<>();
+                for(int i = 0; i < cores; i++){
+                    workers.add(executor.submit(() -> {
+                        do {
+                            encoder.encode("password");
+                            hashes.incrementAndGet();
+                        } while(System.nanoTime() < deadline);
+                    }));
+                }
+                for(Future<?> worker : workers){
+                    worker.get();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                log.info("bcrypt strength {}: {} hashes/s on {} cores, {} hashes/s per core", strength,
+                        String.format("%.1f", hashes.get() / seconds), cores, String.format("%.1f", hashes.get() / seconds / cores));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
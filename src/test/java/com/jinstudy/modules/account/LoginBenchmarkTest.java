@@ -0,0 +1,105 @@
+package com.jinstudy.modules.account;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 로그인할 때 사용자를 찾는 방법별 처리량 비교. (비밀번호 비교는 빼고 UserDetailsService 조회만)
+// 예전 방법: findByEmail -> 없으면 findByNickname 으로 Account 엔티티 조회. 지금: projection 쿼리 한 번 + 로그인 정보 캐시.
+// 기본은 계정 1000개이고, mvn test -Dbenchmark=true -Dbenchmark.accounts=10000 으로 늘릴 수 있다. 계정은 JDBC 로 한 번에 넣기 때문에 @Transactional 테스트가 아니다.
+// 빌드할 때마다 돌지 않도록 -Dbenchmark=true 로 실행할 때만 돈다.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+@SpringBootTest
+class LoginBenchmarkTest {
+
+    private static final int ACCOUNTS = Integer.getInteger("benchmark.accounts", 1000);
+    private static final long FIRST_ID = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired AccountService accountService;
+    @Autowired AccountRepository accountRepository;
+    @Autowired AccountCredentialsCache credentialsCache;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    private final List<String> usernames = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        List<Object[]> rows = new ArrayList<>();
+        for(int i = 0; i < ACCOUNTS; i++){
+            String nickname = "login" + i;
+            rows.add(new Object[]{FIRST_ID + i, nickname + "@email.com", nickname, "{noop}password"});
+            usernames.add(i % 2 == 0 ? nickname : nickname + "@email.com"); // 절반은 닉네임, 절반은 이메일로 로그인
+        }
+        jdbcTemplate.batchUpdate("insert into account (id, email, nickname, password, email_verified, " +
+                "study_created_by_email, study_created_by_web, study_enrollment_by_email, study_enrollment_by_web, " +
+                "study_updated_by_email, study_updated_by_web) values (?, ?, ?, ?, true, false, true, false, true, false, true)", rows);
+    }
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from account where id >= ?", FIRST_ID);
+        credentialsCache.evict(usernames.toArray(new String[0]));
+    }
+
+    @DisplayName("예전 방법과 같은 사용자를 찾고, 로그인 처리량 비교")
+    @Test
+    void login_throughput() {
+        for(String username : List.of("login1@email.com", "login2")){
+            UserDetails expected = new UserAccount(findByEmailOrNickname(username));
+            UserDetails actual = accountService.loadUserByUsername(username);
+            assertEquals(expected.getUsername(), actual.getUsername());
+            assertEquals(expected.getPassword(), actual.getPassword());
+            assertEquals(((UserAccount) expected).getId(), ((UserAccount) actual).getId());
+        }
+        credentialsCache.evict(usernames.toArray(new String[0]));
+
+        double entities = measure(username -> new UserAccount(findByEmailOrNickname(username)));
+        double projection = measure(username -> accountService.loadUserByUsername(username)); // 첫 라운드만 DB 에서 읽는다.
+        credentialsCache.evict(usernames.toArray(new String[0]));
+        double cold = measureOnce(username -> accountService.loadUserByUsername(username));
+        log.info("accounts={} entity lookups={}/s projection+cache={}/s projection only={}/s",
+                ACCOUNTS, String.format("%.0f", entities), String.format("%.0f", projection), String.format("%.0f", cold));
+        assertTrue(cold > 0 && projection > 0);
+    }
+
+    // 예전 AccountService.loadUserByUsername 의 조회 방법
+    private Account findByEmailOrNickname(String username) {
+        return transactionTemplate.execute(status -> {
+            Account account = accountRepository.findByEmail(username);
+            return account != null ? account : accountRepository.findByNickname(username);
+        });
+    }
+
+    // 초당 로그인 조회 수
+    private double measure(Function<String, ?> lookup) {
+        measureOnce(lookup); // warm-up
+        long start = System.nanoTime();
+        for(int round = 0; round < ROUNDS; round++){
+            usernames.forEach(lookup::apply);
+        }
+        return (double) ROUNDS * usernames.size() / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private double measureOnce(Function<String, ?> lookup) {
+        long start = System.nanoTime();
+        usernames.forEach(lookup::apply);
+        return usernames.size() / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+}
@@ -8,7 +8,9 @@ import com.jinstudy.modules.zone.Zone;
 import com.jinstudy.modules.tag.TagForm;
 import com.jinstudy.modules.zone.ZoneForm;
 import com.jinstudy.modules.tag.TagRepository;
+import com.jinstudy.modules.tag.TagService;
 import com.jinstudy.modules.zone.ZoneRepository;
+import com.jinstudy.modules.zone.ZoneService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -39,13 +41,16 @@ class SettingsControllerTest {
     @Autowired ObjectMapper objectMapper;
     @Autowired TagRepository tagRepository;
     @Autowired AccountService accountService;
+    @Autowired TagService tagService;
     @Autowired ZoneRepository zoneRepository;
+    @Autowired ZoneService zoneService;
 
     private Zone testZone = Zone.builder().city("test").localNameOfCity("테스트시").province("테스트도").build();
 
     @BeforeEach
     void beforeEach(){
         zoneRepository.save(testZone);
+        zoneService.refreshCatalog(); // 지역 추가/삭제는 ZoneCatalog 에서 찾기 때문에 테스트 지역을 넣고 다시 만든다.
     }
 
     @AfterEach
@@ -105,6 +110,23 @@ class SettingsControllerTest {
         //Validation에서 걸리기 때문에 값이 들어가지 않게 된다.
     }
 
+    @WithAccount("jjinse")
+    @DisplayName("프로필 수정하기 - 지원하지 않는 이미지 형식")
+    @Test
+    void updateProfile_unsupported_image() throws Exception{
+        mockMvc.perform(post(ROOT + SETTINGS + PROFILE)
+                .param("bio","짧은 소개")
+                .param("profileImage","data:text/html;base64,AAAA")
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("settings/profile"))
+                .andExpect(model().attributeHasFieldErrors("profile", "profileImage"));
+
+        Account jjinse = accountRepository.findByNickname("jjinse");
+        assertNull(jjinse.getBio());
+        assertNull(jjinse.getProfileImage());
+    }
+
     @WithAccount("jjinse")
     @DisplayName("패스워드 수정 폼")
     @Test
@@ -132,6 +154,9 @@ class SettingsControllerTest {
         //실제로 바뀌었는지 확인도 해주기
         Account jjinse = accountRepository.findByNickname("jjinse");
         assertTrue(passwordEncoder.matches("12345678",jjinse.getPassword()));
+        // 로그인 정보 캐시에 이전 비밀번호가 남아있지 않아야 한다.
+        assertTrue(passwordEncoder.matches("12345678", accountService.loadUserByUsername("jjinse").getPassword()));
+        assertTrue(passwordEncoder.matches("12345678", accountService.loadUserByUsername("jjinse@naver.com").getPassword()));
         // assertEquals(passwordEncoder.encode("12345678"),jjinse.getPassword());   // 이거 왜 안되지..?!
     }
 
@@ -212,7 +237,7 @@ class SettingsControllerTest {
                 .andExpect(view().name("settings/tags"))
                 .andExpect(model().attributeExists("account"))
                 .andExpect(model().attributeExists("tags"))
-                .andExpect(model().attributeExists("whitelist"));
+                .andExpect(model().attributeDoesNotExist("whitelist")); // 자동완성은 /tags/suggest 로 요청한다.
     }
 
     @WithAccount("jjinse")
@@ -243,7 +268,7 @@ class SettingsControllerTest {
     @Test
     void removeTag() throws Exception { // TODO 테스트 코드 수정 필요
         Account jjinse = accountRepository.findByNickname("jjinse");
-        Tag newTag = tagRepository.save(Tag.builder().title("newTag").build());
+        Tag newTag = tagService.findOrCreateNew("newTag"); // 태그는 별도 트랜잭션에서 만들어지기 때문에 다른 테스트에서 이미 만들었을 수 있다.
         accountService.addTag(jjinse,newTag); // 일단 먼저 account에 태그 정보를 저장하기
 
         assertTrue(jjinse.getTags().contains(newTag));
@@ -268,7 +293,7 @@ class SettingsControllerTest {
     mockMvc.perform(get(ROOT + SETTINGS + ZONES))
             .andExpect(view().name(SETTINGS + ZONES))
             .andExpect(model().attributeExists("account"))
-            .andExpect(model().attributeExists("whitelist"))
+            .andExpect(model().attributeDoesNotExist("whitelist")) // 지역 목록은 /zones/whitelist 로 받아간다.
             .andExpect(model().attributeExists("zones"));
     }
 
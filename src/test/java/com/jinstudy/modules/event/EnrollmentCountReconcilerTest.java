@@ -0,0 +1,87 @@
+package com.jinstudy.modules.event;
+
+import com.jinstudy.modules.account.Account;
+import com.jinstudy.modules.account.AccountFactory;
+import com.jinstudy.modules.study.Study;
+import com.jinstudy.modules.study.StudyFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class EnrollmentCountReconcilerTest {
+
+    @Autowired EnrollmentCountReconciler reconciler;
+    @Autowired EventService eventService;
+    @Autowired EventRepository eventRepository;
+    @Autowired AccountFactory accountFactory;
+    @Autowired StudyFactory studyFactory;
+    @Autowired EventFactory eventFactory;
+    @Autowired EntityManager entityManager;
+
+    @DisplayName("신청, 취소할 때마다 확정/대기 인원 카운터 변경")
+    @Test
+    void counts_follow_enrollments() {
+        Event event = createEventWithEnrollments();
+
+        assertEquals(2, event.getAcceptedCount());
+        assertEquals(1, event.getWaitingCount());
+        assertEquals(0, event.numberOfRemainSpots());
+
+        entityManager.flush();
+        entityManager.clear();
+        Event saved = eventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(2, saved.getAcceptedCount());
+        assertEquals(1, saved.getWaitingCount());
+    }
+
+    @DisplayName("카운터가 실제 신청 수와 다르면 다시 맞춘다.")
+    @Test
+    void reconcile_drifted_counts() {
+        Event event = createEventWithEnrollments();
+        eventRepository.updateCounts(event.getId(), 0, 5);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(reconciler.reconcile(event.getId()));
+        assertFalse(reconciler.reconcile(event.getId())); // 이미 맞춰진 카운터는 그대로
+
+        entityManager.clear();
+        Event saved = eventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(2, saved.getAcceptedCount());
+        assertEquals(1, saved.getWaitingCount());
+    }
+
+    @DisplayName("카운터 컬럼이 새로 생겨서 0인 모임도 신청 중이면 다시 맞춘다.")
+    @Test
+    void reconcile_enrollable_backfills_counts() {
+        Event event = createEventWithEnrollments();
+        eventRepository.updateCounts(event.getId(), 0, 0);
+        entityManager.flush();
+        entityManager.clear();
+
+        reconciler.reconcileEnrollable();
+
+        entityManager.clear();
+        Event saved = eventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(2, saved.getAcceptedCount());
+        assertEquals(1, saved.getWaitingCount());
+    }
+
+    private Event createEventWithEnrollments() {
+        Account sejin = accountFactory.createAccount("sejin");
+        Study study = studyFactory.createStudy("test-study", sejin);
+        Event event = eventFactory.createEvent("test-event", EventType.FCFS, 2, study, sejin);
+        eventService.newEnrollment(event, accountFactory.createAccount("haverz"));
+        eventService.newEnrollment(event, accountFactory.createAccount("kante"));
+        eventService.newEnrollment(event, accountFactory.createAccount("jjinse"));
+        return event;
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
+import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -50,6 +51,26 @@ class EventControllerTest{
                 .andExpect(model().attributeExists("eventForm"));
     }
 
+    @WithAccount("jjinse")
+    @DisplayName("모임 조회 - 로그인한 사용자의 신청 상태")
+    @Test
+    void viewEvent_with_my_enrollment() throws Exception {
+        Account sejin = accountFactory.createAccount("sejin");
+        Study study = studyFactory.createStudy("test-study",sejin);
+        Event event = eventFactory.createEvent("test-event", EventType.FCFS, 2, study, sejin);
+
+        mockMvc.perform(get("/study/"+study.getPath()+"/event/"+event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("myEnrollment", nullValue())); // 신청하지 않은 상태
+
+        Account jjinse = accountRepository.findByNickname("jjinse");
+        eventService.newEnrollment(event,jjinse);
+
+        mockMvc.perform(get("/study/"+study.getPath()+"/event/"+event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("myEnrollment", hasProperty("accepted", is(true))));
+    }
+
     @WithAccount("jjinse")
     @DisplayName("선착순 모임에 참가 신청 - 자동 수락")
     @Test
@@ -0,0 +1,163 @@
+package com.jinstudy.modules.event;
+
+import com.jinstudy.modules.account.Account;
+import com.jinstudy.modules.account.AccountFactory;
+import com.jinstudy.modules.account.AccountRepository;
+import com.jinstudy.modules.study.Study;
+import com.jinstudy.modules.study.StudyFactory;
+import com.jinstudy.modules.study.StudyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// 여러 스레드에서 동시에 신청해야 하기 때문에 @Transactional 테스트가 아니다. -> 각 신청이 각자의 트랜잭션에서 커밋되고, 테스트가 끝나면 직접 지워준다.
+@SpringBootTest
+class SeatAllocatorTest {
+
+    private static final int LIMIT = 100;
+    private static final int REQUESTS = 2000;
+    private static final int THREADS = 16;
+
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired EventService eventService;
+    @Autowired EventRepository eventRepository;
+    @Autowired EnrollmentRepository enrollmentRepository;
+    @Autowired AccountRepository accountRepository;
+    @Autowired StudyRepository studyRepository;
+    @Autowired AccountFactory accountFactory;
+    @Autowired StudyFactory studyFactory;
+    @Autowired EventFactory eventFactory;
+
+    Long eventId;
+    List<Long> accountIds;
+
+    @BeforeEach
+    void beforeEach() {
+        eventId = transactionTemplate.execute(status -> {
+            Account manager = accountFactory.createAccount("seat-manager");
+            Study study = studyFactory.createStudy("seat-study", manager);
+            return eventFactory.createEvent("seat-event", EventType.FCFS, LIMIT, study, manager).getId();
+        });
+
+        List<Account> accounts = IntStream.range(0, REQUESTS).mapToObj(i -> {
+            Account account = new Account();
+            account.setNickname("seat" + i);
+            account.setEmail("seat" + i + "@email.com");
+            return account;
+        }).collect(Collectors.toList());
+        accountIds = accountRepository.saveAll(accounts).stream().map(Account::getId).collect(Collectors.toList());
+    }
+
+    @AfterEach
+    void afterEach() {
+        enrollmentRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        studyRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @DisplayName("선착순 모임에 동시에 신청이 몰려도 모집 인원 만큼만 확정")
+    @Test
+    void concurrent_enrollments_never_exceed_limit() throws InterruptedException {
+        runConcurrently(accountIds, eventService::newEnrollment);
+
+        List<Enrollment> enrollments = enrollmentRepository.findAll();
+        long accepted = enrollments.stream().filter(Enrollment::isAccepted).count();
+        assertTrue(accepted <= LIMIT);
+        assertEquals(LIMIT, accepted); // 신청이 모집 인원보다 훨씬 많으니까 자리는 모두 찬다.
+        assertEquals(accepted, eventRepository.findAcceptedCountById(eventId));
+        assertEquals(REQUESTS, enrollments.size());
+    }
+
+    @DisplayName("DB 에서 자리를 잡다가 예외가 나면 메모리에서 잡은 자리를 돌려준다")
+    @Test
+    void acquire_returns_reserved_seats_when_update_fails() {
+        EventRepository repository = mock(EventRepository.class);
+        when(repository.findAcceptedCountById(1L)).thenReturn(0);
+        when(repository.increaseAcceptedCount(1L, 1))
+                .thenThrow(new QueryTimeoutException("lock timeout"))
+                .thenReturn(1);
+        SeatAllocator seatAllocator = new SeatAllocator(repository);
+        Event event = new Event();
+        event.setId(1L);
+        event.setLimitOfEnrollment(1);
+
+        assertThrows(QueryTimeoutException.class, () -> seatAllocator.tryAcquire(event));
+        assertTrue(seatAllocator.tryAcquire(event)); // 돌려받지 못했으면 자리가 찼다고 거절한다.
+        assertEquals(1, event.getAcceptedCount());
+    }
+
+    @DisplayName("확정된 참여자와 대기중인 참여자가 동시에 취소해도 대기 순서대로 빈자리만큼 확정")
+    @Test
+    void concurrent_cancellations_promote_waiting_list_in_order() throws InterruptedException {
+        List<Long> enrolled = accountIds.subList(0, LIMIT * 4);
+        enrolled.forEach(accountId -> inTransaction(accountId, eventService::newEnrollment)); // 앞의 LIMIT 명은 확정, 나머지는 대기
+
+        // 확정된 참여자 전원과 대기중인 참여자 일부가 동시에 취소
+        runConcurrently(enrolled.subList(0, LIMIT * 2), eventService::cancelEnrollment);
+
+        List<Enrollment> enrollments = enrollmentRepository.findAll().stream()
+                .sorted(Comparator.comparing(Enrollment::getEnrolledAt).thenComparing(Enrollment::getId))
+                .collect(Collectors.toList());
+        int accepted = (int) enrollments.stream().filter(Enrollment::isAccepted).count();
+        assertEquals(LIMIT * 2, enrollments.size());
+        assertEquals(Math.min(LIMIT, enrollments.size()), accepted);
+        // 대기 목록의 앞에서부터 확정되기 때문에 확정된 신청은 항상 신청 순서의 앞부분이다.
+        assertTrue(enrollments.subList(0, accepted).stream().allMatch(Enrollment::isAccepted));
+        assertEquals(accepted, eventRepository.findAcceptedCountById(eventId));
+        assertEquals(enrollments.size() - accepted, eventRepository.findById(eventId).orElseThrow().getWaitingCount());
+    }
+
+    // 각 요청을 별도의 트랜잭션으로 동시에 실행한다. 실패한 요청이 있으면 그 예외로 테스트가 실패한다.
+    private void runConcurrently(List<Long> accountIds, BiConsumer<Event, Account> request) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        for(Long accountId : accountIds){
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    inTransaction(accountId, request);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        if(!failures.isEmpty()){
+            AssertionError error = new AssertionError(failures.size() + " requests failed");
+            failures.forEach(error::addSuppressed);
+            throw error;
+        }
+    }
+
+    private void inTransaction(Long accountId, BiConsumer<Event, Account> request) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Event event = eventRepository.findById(eventId).orElseThrow();
+            Account account = accountRepository.findById(accountId).orElseThrow();
+            request.accept(event, account);
+        });
+    }
+}
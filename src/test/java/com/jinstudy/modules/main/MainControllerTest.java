@@ -1,8 +1,10 @@
 package com.jinstudy.modules.main;
 
 import com.jinstudy.infra.MockMvcTest;
+import com.jinstudy.modules.account.Account;
 import com.jinstudy.modules.account.AccountRepository;
 import com.jinstudy.modules.account.AccountService;
+import com.jinstudy.modules.account.WithAccount;
 import com.jinstudy.modules.account.form.SignUpForm;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,14 +12,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
 @MockMvcTest
 class MainControllerTest {
@@ -25,6 +34,7 @@ class MainControllerTest {
     @Autowired MockMvc mockMvc;
     @Autowired AccountService accountService;
     @Autowired AccountRepository accountRepository;
+    @Autowired PasswordEncoder passwordEncoder;
 
     @AfterEach
     void afterEach(){
@@ -76,6 +86,27 @@ class MainControllerTest {
 
     }
 
+    @DisplayName("로그인 성공 - 예전 strength 로 저장된 비밀번호는 지금 설정한 strength 로 다시 저장")
+    @Test
+    void login_rehashes_password() throws Exception {
+        Account account = new Account();
+        account.setNickname("rehash");
+        account.setEmail("rehash@email.com");
+        account.setPassword("{bcrypt}" + new BCryptPasswordEncoder(4).encode("12345678"));
+        accountRepository.save(account);
+
+        mockMvc.perform(post("/login")
+                .param("username","rehash")
+                .param("password","12345678")
+                .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(authenticated().withUsername("rehash"));
+
+        String password = accountRepository.findByNickname("rehash").getPassword();
+        assertTrue(password.startsWith("{bcrypt}$2a$10$")); // app.password.bcrypt-strength=10
+        assertTrue(passwordEncoder.matches("12345678", password));
+    }
+
     @DisplayName("로그인 실패")
     @Test
     void login_fail() throws Exception {
@@ -97,4 +128,23 @@ class MainControllerTest {
                 .andExpect(redirectedUrl("/")) // 시큐리티 설정에서 루트로 리다이렉션하게 설정 했음.
                 .andExpect(unauthenticated());
     }
-}
\ No newline at end of file
+
+    @WithAccount("jjinse")
+    @DisplayName("홈 화면 - 로그인한 사용자에게는 추천 스터디 목록")
+    @Test
+    void home_with_study_feed() throws Exception {
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("index"))
+                .andExpect(model().attributeExists("account"))
+                .andExpect(model().attribute("studyList", empty())); // 관심 주제, 활동 지역이 없으면 추천할 스터디도 없다.
+    }
+
+    @DisplayName("홈 화면 - 로그인 하지 않은 사용자")
+    @Test
+    void home_without_login() throws Exception {
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeDoesNotExist("studyList"));
+    }
+}
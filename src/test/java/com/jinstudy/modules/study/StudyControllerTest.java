@@ -11,9 +11,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -121,13 +123,15 @@ public class StudyControllerTest {
         Account sejin = accountFactory.createAccount("sejin");
 
         Study study = studyFactory.createStudy("test-study",sejin);
+        study.publish();
+        study.startRecruit();
 
         mockMvc.perform(get("/study/"+study.getPath()+"/join"))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/study/"+study.getPath()+"/members"));
 
         Account jjinse = accountRepository.findByNickname("jjinse");
-        assertTrue(study.getMembers().contains(jjinse));
+        assertTrue(studyRepository.existsByIdAndMembersId(study.getId(), jjinse.getId())); // 구성원은 조인 테이블에 바로 추가된다.
     }
 
     @WithAccount("jjinse")
@@ -138,13 +142,41 @@ public class StudyControllerTest {
         Study study = studyFactory.createStudy("test-study",sejin);
 
         Account jjinse = accountRepository.findByNickname("jjinse");
-        study.addMember(jjinse);
+        study.getMembers().add(jjinse);
 
         mockMvc.perform(get("/study/"+study.getPath()+"/leave"))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/study/"+study.getPath()+"/members"));
 
-        assertFalse(study.getMembers().contains("jjinse"));
+        assertFalse(studyRepository.existsByIdAndMembersId(study.getId(), jjinse.getId()));
     }
 
-}
\ No newline at end of file
+    @WithAccount("jjinse")
+    @DisplayName("스터디 구성원 조회 - 구성원 id 기준으로 페이징")
+    @Test
+    void viewStudyMembers_paged() throws Exception {
+        Account sejin = accountFactory.createAccount("sejin");
+        Study study = studyFactory.createStudy("test-study",sejin);
+        int numberOfMembers = StudyController.MEMBERS_PAGE_SIZE + 5;
+        for(int i = 0; i < numberOfMembers; i++){
+            study.getMembers().add(accountFactory.createAccount("member" + i));
+        }
+
+        MvcResult firstPage = mockMvc.perform(get("/study/"+study.getPath()+"/members"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("study/members"))
+                .andExpect(model().attribute("members", hasSize(StudyController.MEMBERS_PAGE_SIZE)))
+                .andExpect(model().attribute("nextMemberId", notNullValue()))
+                .andExpect(model().attribute("studyMember", false))
+                .andReturn();
+        Study viewed = (Study) firstPage.getModelAndView().getModel().get("study");
+        assertEquals(numberOfMembers, viewed.getMemberCount());
+
+        Long nextMemberId = (Long) firstPage.getModelAndView().getModel().get("nextMemberId");
+        mockMvc.perform(get("/study/"+study.getPath()+"/members").param("after", nextMemberId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("members", hasSize(5)))
+                .andExpect(model().attribute("nextMemberId", nullValue()));
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.jinstudy.modules.study;
+
+import com.jinstudy.infra.config.AppProperties;
+import com.jinstudy.modules.account.Account;
+import com.jinstudy.modules.account.event.AccountInterestsChangedEvent;
+import com.jinstudy.modules.tag.Tag;
+import com.jinstudy.modules.zone.Zone;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudyFeedTest {
+
+    StudyFeed studyFeed;
+    Tag spring = Tag.builder().id(1L).title("spring").build();
+    Tag jpa = Tag.builder().id(2L).title("jpa").build();
+    Zone seoul = Zone.builder().id(1L).city("Seoul").localNameOfCity("서울특별시").build();
+
+    @BeforeEach
+    void beforeEach() {
+        studyFeed = new StudyFeed(new AppProperties(), new SimpleMeterRegistry());
+    }
+
+    @DisplayName("관심 주제, 활동 지역과 많이 겹치는 순서로 추천하고 모집 중이 아닌 스터디는 빼기")
+    @Test
+    void recommend_by_overlap() {
+        studyFeed.put(study(1L, Set.of(spring), Set.of()));
+        studyFeed.put(study(2L, Set.of(spring, jpa), Set.of(seoul)));
+        studyFeed.put(study(3L, Set.of(jpa), Set.of(seoul)));
+        studyFeed.put(study(4L, Set.of(), Set.of()));
+        Study notRecruiting = study(5L, Set.of(spring, jpa), Set.of(seoul));
+        notRecruiting.setRecruiting(false);
+        studyFeed.put(notRecruiting);
+
+        assertEquals(List.of(2L, 3L, 1L), studyFeed.recommend(Set.of(1L, 2L), Set.of(1L)));
+        assertTrue(studyFeed.recommend(Set.of(), Set.of()).isEmpty());
+    }
+
+    @DisplayName("상위 FEED_SIZE 개만 추천, 점수가 같으면 최근 스터디 먼저")
+    @Test
+    void recommend_top_k() {
+        for(long id = 1; id <= StudyFeed.FEED_SIZE * 2; id++){
+            studyFeed.put(study(id, Set.of(spring), Set.of()));
+        }
+
+        List<Long> feed = studyFeed.recommend(Set.of(1L), Set.of());
+
+        assertEquals(StudyFeed.FEED_SIZE, feed.size());
+        assertEquals(StudyFeed.FEED_SIZE * 2L, feed.get(0));
+    }
+
+    @DisplayName("사용자별로 캐싱하고, 관심 주제가 바뀌거나 스터디가 바뀌면 다시 만든다.")
+    @Test
+    void cache_and_invalidate() {
+        Account account = new Account();
+        account.setId(1L);
+        account.getTags().add(spring);
+        studyFeed.put(study(1L, Set.of(spring), Set.of()));
+        assertEquals(List.of(1L), studyFeed.getStudyIds(account));
+
+        account.getTags().clear();
+        assertEquals(List.of(1L), studyFeed.getStudyIds(account)); // 캐시
+
+        studyFeed.onAccountInterestsChanged(new AccountInterestsChangedEvent(1L));
+        assertTrue(studyFeed.getStudyIds(account).isEmpty());
+
+        account.getTags().add(jpa);
+        studyFeed.onAccountInterestsChanged(new AccountInterestsChangedEvent(1L));
+        assertTrue(studyFeed.getStudyIds(account).isEmpty());
+        studyFeed.index(study(2L, Set.of(jpa), Set.of())); // 트랜잭션 밖에서는 바로 반영되고 캐시는 모두 지워진다.
+        assertEquals(List.of(2L), studyFeed.getStudyIds(account));
+    }
+
+    private Study study(Long id, Set<Tag> tags, Set<Zone> zones) {
+        Study study = new Study();
+        study.setId(id);
+        study.setPublished(true);
+        study.setRecruiting(true);
+        study.getTags().addAll(tags);
+        study.getZones().addAll(zones);
+        return study;
+    }
+}
@@ -0,0 +1,178 @@
+package com.jinstudy.modules.study;
+
+import com.jinstudy.modules.account.Account;
+import com.jinstudy.modules.tag.Tag;
+import com.jinstudy.modules.zone.Zone;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class StudyRepositoryTest {
+
+    private static final int NUMBER_OF_TAGS = 3;
+    private static final int NUMBER_OF_ZONES = 2;
+
+    @Autowired EntityManager entityManager;
+    @Autowired StudyRepository studyRepository;
+
+    @DisplayName("스터디 페이지 조회 - 멤버 수가 늘어나도 쿼리 수와 조회 row 수는 일정")
+    @ParameterizedTest(name = "멤버 {0}명")
+    @ValueSource(ints = {10, 100, 1000})
+    void findStudyToViewByPath(int numberOfMembers) {
+        createStudy("test-study", numberOfMembers);
+        entityManager.flush();
+        entityManager.clear();
+
+        // 기존 Study.withAll 과 같은 방식 (네 개의 컬렉션을 한번에 join)
+        long start = System.nanoTime();
+        int cartesianRows = entityManager.createQuery("select s from Study s " +
+                "left join fetch s.tags left join fetch s.zones left join fetch s.members left join fetch s.managers " +
+                "where s.path = :path", Study.class)
+                .setParameter("path", "test-study")
+                .getResultList().size(); // fetch join 결과는 row 하나당 하나의 (중복된) Study 가 담긴다.
+        long cartesianNanos = System.nanoTime() - start;
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        start = System.nanoTime();
+        Study study = studyRepository.findStudyToViewByPath("test-study");
+        long splitNanos = System.nanoTime() - start;
+
+        int splitRows = NUMBER_OF_TAGS + NUMBER_OF_ZONES + 1 + 1; // 멤버는 count 쿼리 한 row
+        log.info("members={} cartesian: rows={} time={}ms / split: queries={} rows={} time={}ms",
+                numberOfMembers, cartesianRows, cartesianNanos / 1_000_000,
+                statistics.getPrepareStatementCount(), splitRows, splitNanos / 1_000_000);
+
+        assertEquals(NUMBER_OF_TAGS * NUMBER_OF_ZONES * numberOfMembers, cartesianRows);
+        assertEquals(4, statistics.getPrepareStatementCount()); // 루트 + tags, zones, managers, 멤버 count
+        assertEquals(NUMBER_OF_TAGS, study.getTags().size());
+        assertEquals(NUMBER_OF_ZONES, study.getZones().size());
+        assertEquals(1, study.getManagers().size());
+        assertEquals(numberOfMembers, study.getMemberCount());
+        assertFalse(Hibernate.isInitialized(study.getMembers())); // 멤버 목록은 읽어오지 않는다.
+        assertEquals(4, statistics.getPrepareStatementCount()); // 컬렉션 접근 시 추가 lazy loading 쿼리가 발생하지 않아야 한다.
+    }
+
+    @DisplayName("스터디 페이지 조회 - 없는 경로")
+    @Test
+    void findStudyToViewByPath_not_found() {
+        assertNull(studyRepository.findStudyToViewByPath("no-study"));
+    }
+
+    @DisplayName("구성원 목록 - 마지막으로 읽은 구성원 다음부터 페이징")
+    @Test
+    void findMembers() {
+        Study study = createStudy("test-study", 25);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Account> firstPage = studyRepository.findMembers(study, 0, 10);
+        List<Account> secondPage = studyRepository.findMembers(study, firstPage.get(9).getId(), 10);
+        List<Account> lastPage = studyRepository.findMembers(study, secondPage.get(9).getId(), 10);
+
+        assertEquals(10, firstPage.size());
+        assertEquals(10, secondPage.size());
+        assertEquals(5, lastPage.size());
+        assertTrue(firstPage.get(9).getId() < secondPage.get(0).getId());
+        assertEquals(25, studyRepository.countMembers(study));
+    }
+
+    @DisplayName("스터디 가입, 탈퇴 - 멤버 수가 늘어나도 구성원 목록을 읽지 않고 쿼리 수는 일정")
+    @ParameterizedTest(name = "멤버 {0}명")
+    @ValueSource(ints = {10, 100, 1000, 5000})
+    void addMember_and_removeMember(int numberOfMembers) {
+        Study study = createStudy("test-study", numberOfMembers);
+        Account newMember = createAccount("new-member");
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        Study studyToJoin = studyRepository.findStudyOnlyByPath("test-study");
+        boolean member = studyRepository.existsByIdAndMembersId(studyToJoin.getId(), newMember.getId());
+        boolean added = studyRepository.addMember(studyToJoin, newMember);
+        boolean addedAgain = studyRepository.addMember(studyToJoin, newMember); // 이미 구성원이면 insert 되지 않는다.
+        long joinNanos = System.nanoTime() - start;
+        long loadedEntities = statistics.getEntityLoadCount();
+
+        log.info("members={} join: queries={} entities={} time={}ms",
+                numberOfMembers, statistics.getPrepareStatementCount(), loadedEntities, joinNanos / 1_000_000);
+
+        assertFalse(member);
+        assertTrue(added);
+        assertFalse(addedAgain);
+        assertEquals(4, statistics.getPrepareStatementCount()); // 스터디, exists, insert 두 번
+        assertEquals(1, loadedEntities); // 스터디 하나만 읽는다.
+        assertFalse(Hibernate.isInitialized(studyToJoin.getMembers()));
+        assertEquals(numberOfMembers + 1, studyRepository.countMembers(studyToJoin));
+
+        assertTrue(studyRepository.removeMember(studyToJoin, newMember));
+        assertFalse(studyRepository.removeMember(studyToJoin, newMember));
+        assertEquals(numberOfMembers, studyRepository.countMembers(studyToJoin));
+        assertFalse(studyRepository.existsByIdAndMembersId(study.getId(), newMember.getId()));
+    }
+
+    @DisplayName("관리자, 구성원 여부 - 컬렉션을 읽지 않고 exists 쿼리로 확인")
+    @Test
+    void exists_manager_and_member() {
+        Study study = createStudy("test-study", 3);
+        Account manager = study.getManagers().iterator().next();
+        Account member = study.getMembers().iterator().next();
+        Account other = createAccount("other");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(studyRepository.existsByIdAndManagersId(study.getId(), manager.getId()));
+        assertFalse(studyRepository.existsByIdAndManagersId(study.getId(), member.getId()));
+        assertTrue(studyRepository.existsByIdAndMembersId(study.getId(), member.getId()));
+        assertFalse(studyRepository.existsByIdAndMembersId(study.getId(), manager.getId()));
+        assertFalse(studyRepository.existsByIdAndMembersId(study.getId(), other.getId()));
+    }
+
+    private Study createStudy(String path, int numberOfMembers) {
+        Study study = new Study();
+        study.setPath(path);
+
+        Account manager = createAccount("manager");
+        study.addManager(manager);
+        for (int i = 0; i < numberOfMembers; i++) {
+            study.getMembers().add(createAccount("member" + i));
+        }
+        for (int i = 0; i < NUMBER_OF_TAGS; i++) {
+            Tag tag = Tag.builder().title("tag" + i).build();
+            entityManager.persist(tag);
+            study.getTags().add(tag);
+        }
+        for (int i = 0; i < NUMBER_OF_ZONES; i++) {
+            Zone zone = Zone.builder().city("city" + i).localNameOfCity("도시" + i).province("province").build();
+            entityManager.persist(zone);
+            study.getZones().add(zone);
+        }
+        entityManager.persist(study);
+        return study;
+    }
+
+    private Account createAccount(String nickname) {
+        Account account = new Account();
+        account.setNickname(nickname);
+        account.setEmail(nickname + "@email.com");
+        entityManager.persist(account);
+        return account;
+    }
+}
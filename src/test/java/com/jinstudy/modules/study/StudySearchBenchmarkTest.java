@@ -0,0 +1,97 @@
+package com.jinstudy.modules.study;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 역색인 검색과 LIKE '%키워드%' 검색의 응답 시간 비교. 기본은 스터디 1만 개이고, mvn test -Dbenchmark=true -Dbenchmark.studies=100000 으로 늘릴 수 있다.
+// 스터디는 JDBC 로 한 번에 넣고 색인을 새로 만들어야 하기 때문에 @Transactional 테스트가 아니다.
+// 빌드할 때마다 돌지 않도록 -Dbenchmark=true 로 실행할 때만 돈다.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+@SpringBootTest
+class StudySearchBenchmarkTest {
+
+    private static final int STUDIES = Integer.getInteger("benchmark.studies", 10_000);
+    private static final long FIRST_ID = 1_000_000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+    private static final String[] WORDS = {"스프링", "자바", "알고리즘", "파이썬", "리액트", "코틀린", "토익", "영어회화",
+            "면접", "모각코", "golang", "kubernetes", "docker", "android", "swift", "rust"};
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired StudySearchIndex studySearchIndex;
+    @Autowired StudyIndexLoader studyIndexLoader;
+
+    @BeforeEach
+    void beforeEach() {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for(int i = 0; i < STUDIES; i++){
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " 스터디 " + i;
+            String shortDescription = WORDS[random.nextInt(WORDS.length)] + " 같이 공부해요";
+            String fullDescription = "<p>" + WORDS[random.nextInt(WORDS.length)] + " 를 매주 공부합니다. 초보자 환영</p>";
+            rows.add(new Object[]{FIRST_ID + i, "benchmark-" + i, title, shortDescription, fullDescription});
+        }
+        jdbcTemplate.batchUpdate("insert into study (id, path, title, short_description, full_description, " +
+                "published, recruiting, closed, use_banner) values (?, ?, ?, ?, ?, true, true, false, false)", rows);
+        studyIndexLoader.load();
+    }
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from study where id >= ?", FIRST_ID);
+        for(long id = FIRST_ID; id < FIRST_ID + STUDIES; id++){
+            studySearchIndex.delete(id);
+        }
+    }
+
+    @DisplayName("역색인 검색이 LIKE 검색이 찾는 스터디를 모두 찾고, 응답 시간 비교")
+    @Test
+    void search_vs_like() {
+        for(String keyword : List.of("스프링", "kubernetes", "영어회화")){
+            List<Long> likeResult = likeSearch(keyword);
+            List<Long> indexResult = studySearchIndex.search(keyword, PageRequest.of(0, STUDIES)).getContent();
+            assertFalse(likeResult.isEmpty());
+            assertTrue(new HashSet<>(indexResult).containsAll(likeResult));
+
+            double likeMillis = measure(() -> likeSearch(keyword));
+            double indexMillis = measure(() -> studySearchIndex.search(keyword, PageRequest.of(0, 9)));
+            log.info("studies={} keyword={} matches={} like={}ms index={}ms",
+                    STUDIES, keyword, likeResult.size(), String.format("%.2f", likeMillis), String.format("%.2f", indexMillis));
+        }
+    }
+
+    private List<Long> likeSearch(String keyword) {
+        String pattern = "%" + keyword + "%";
+        return jdbcTemplate.queryForList("select id from study where published = true " +
+                "and (lower(title) like ? or lower(short_description) like ? or lower(full_description) like ?)",
+                Long.class, pattern, pattern, pattern);
+    }
+
+    private double measure(Supplier<?> search) {
+        for(int i = 0; i < WARMUP; i++){
+            search.get();
+        }
+        long start = System.nanoTime();
+        for(int i = 0; i < ITERATIONS; i++){
+            search.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
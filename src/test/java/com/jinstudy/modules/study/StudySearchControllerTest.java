@@ -0,0 +1,42 @@
+package com.jinstudy.modules.study;
+
+import com.jinstudy.infra.MockMvcTest;
+import com.jinstudy.modules.account.Account;
+import com.jinstudy.modules.account.AccountFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@MockMvcTest
+class StudySearchControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired StudyFactory studyFactory;
+    @Autowired AccountFactory accountFactory;
+    @Autowired StudySearchIndex studySearchIndex;
+
+    @DisplayName("스터디 검색 - 로그인 하지 않아도 검색 가능")
+    @Test
+    void searchStudy() throws Exception {
+        Account sejin = accountFactory.createAccount("sejin");
+        Study study = studyFactory.createStudy("spring-study", sejin);
+        study.setTitle("스프링 부트 스터디");
+        study.publish();
+        studyFactory.createStudy("draft-study", sejin).setTitle("스프링 초안"); // 공개하지 않은 스터디는 검색되지 않는다.
+        studySearchIndex.put(study); // 테스트 트랜잭션은 커밋되지 않기 때문에 커밋 후 색인 대신 직접 색인한다.
+
+        mockMvc.perform(get("/search/study").param("keyword", "스프링"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("search"))
+                .andExpect(model().attribute("keyword", "스프링"))
+                .andExpect(model().attribute("studyPage", hasProperty("totalElements", is(1L))))
+                .andExpect(model().attribute("studyPage", hasProperty("content", contains(hasProperty("path", is("spring-study"))))));
+
+        studySearchIndex.delete(study.getId()); // 색인은 롤백되지 않으니까 직접 지운다.
+    }
+}
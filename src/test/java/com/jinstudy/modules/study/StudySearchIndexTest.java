@@ -0,0 +1,100 @@
+package com.jinstudy.modules.study;
+
+import com.jinstudy.modules.tag.Tag;
+import com.jinstudy.modules.zone.Zone;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudySearchIndexTest {
+
+    StudySearchIndex index = new StudySearchIndex();
+
+    @DisplayName("한글은 두 글자씩 끊어서 조사가 붙은 단어도 검색")
+    @Test
+    void tokenize_korean() {
+        assertEquals(List.of("스프", "프링", "링을", "jpa", "로"), StudyTokenizer.tokenize("<p>스프링을 JPA로</p>"));
+
+        index.put(study(1L, "스프링을 공부하는 모임", "", ""));
+
+        assertEquals(List.of(1L), index.search("스프링", PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(1L), index.search("공부", PageRequest.of(0, 10)).getContent());
+        assertTrue(index.search("파이썬", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @DisplayName("제목, 태그에 있는 검색어가 상세 소개에 있는 것 보다 앞에 나온다.")
+    @Test
+    void rank_by_field() {
+        index.put(study(1L, "알고리즘", "", "<p>java 로 문제를 풉니다</p>"));
+        index.put(study(2L, "java 스터디", "", ""));
+        Study tagged = study(3L, "백엔드", "", "");
+        tagged.getTags().add(Tag.builder().title("java").build());
+        index.put(tagged);
+
+        assertEquals(List.of(2L, 3L, 1L), index.search("java", PageRequest.of(0, 10)).getContent());
+    }
+
+    @DisplayName("지역 이름으로 검색")
+    @Test
+    void search_zone() {
+        Study study = study(1L, "모각코", "", "");
+        study.getZones().add(Zone.builder().city("Seoul").localNameOfCity("서울특별시").province("none").build());
+        index.put(study);
+
+        assertEquals(List.of(1L), index.search("seoul", PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(1L), index.search("서울", PageRequest.of(0, 10)).getContent());
+    }
+
+    @DisplayName("검색 결과 페이징")
+    @Test
+    void search_paged() {
+        for(long id = 1; id <= 25; id++){
+            index.put(study(id, "스프링 스터디 " + id, "", ""));
+        }
+
+        Page<Long> first = index.search("스프링", PageRequest.of(0, 10));
+        Page<Long> last = index.search("스프링", PageRequest.of(2, 10));
+
+        assertEquals(25, first.getTotalElements());
+        assertEquals(3, first.getTotalPages());
+        assertEquals(10, first.getContent().size());
+        assertEquals(5, last.getContent().size());
+        assertEquals(25L, first.getContent().get(0)); // 점수가 같으면 최근 스터디 먼저
+        assertEquals(1L, last.getContent().get(4));
+    }
+
+    @DisplayName("다시 색인하면 이전 내용은 검색되지 않고, 공개하지 않은 스터디는 색인하지 않는다.")
+    @Test
+    void reindex_and_remove() {
+        Study study = study(1L, "스프링", "", "");
+        index.index(study); // 트랜잭션 밖에서는 바로 반영
+        study.setTitle("파이썬");
+        index.index(study);
+
+        assertTrue(index.search("스프링", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(1, index.search("파이썬", PageRequest.of(0, 10)).getTotalElements());
+
+        index.remove(study);
+        assertEquals(0, index.size());
+
+        Study draft = study(2L, "파이썬", "", "");
+        draft.setPublished(false);
+        index.index(draft);
+        assertTrue(index.search("파이썬", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private Study study(Long id, String title, String shortDescription, String fullDescription) {
+        Study study = new Study();
+        study.setId(id);
+        study.setTitle(title);
+        study.setShortDescription(shortDescription);
+        study.setFullDescription(fullDescription);
+        study.setPublished(true);
+        return study;
+    }
+}
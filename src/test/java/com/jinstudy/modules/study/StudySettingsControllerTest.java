@@ -93,4 +93,22 @@ class StudySettingsControllerTest{
                 .andExpect(model().attributeExists("studyDescriptionForm"))
                 .andExpect(model().attributeExists("study"));
     }
+
+    @WithAccount("jjinse")
+    @DisplayName("스터디 배너 이미지 수정 - 지원하지 않는 이미지 형식")
+    @Test
+    void updateStudyImage_unsupported() throws Exception {
+        Account jjinse = accountRepository.findByNickname("jjinse");
+        Study study = studyFactory.createStudy("test-study",jjinse);
+
+        mockMvc.perform(post("/study/"+study.getPath()+"/settings/banner")
+                .param("image","data:text/html;base64,AAAA")
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("study/settings/banner"))
+                .andExpect(model().attributeExists("imageError"))
+                .andExpect(model().attributeExists("study"));
+
+        assertNull(study.getImage());
+    }
 }
\ No newline at end of file
@@ -2,13 +2,13 @@ package com.jinstudy.modules.study;
 
 import com.jinstudy.modules.account.Account;
 import com.jinstudy.modules.account.UserAccount;
-import com.jinstudy.modules.study.Study;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+// 구성원 여부는 StudyService 에서 exists 쿼리로 확인한다. (StudyRepositoryTest)
 class StudyTest {
 
     Study study;
@@ -19,50 +19,44 @@ class StudyTest {
     void beforeEach(){
         study = new Study();
         account = new Account();
+        account.setId(1L); // Principal(UserAccount)은 id로 Account 와 비교한다.
         account.setNickname("jjinse");
         account.setPassword("12345");
         userAccount = new UserAccount(account);
     }
 
-    @DisplayName("스터디를 공개했고, 인원 모집 중이고, 이미 멤버나 스터디 관리자가 아니라면 스터디에 가입이 가능.")
+    @DisplayName("스터디를 공개했고, 인원 모집 중이고, 종료되지 않았다면 스터디에 가입이 가능.")
     @Test
-    void isJoinable(){
+    void canJoin(){
         study.setPublished(true);
         study.setRecruiting(true);
 
-        assertTrue(study.isJoinable(userAccount));
+        assertTrue(study.canJoin());
     }
 
-    @DisplayName("스터디가 공개 상태이고, 인원도 모집 중이지만 관리자의 경우에는 가입이 불가능함.")
+    @DisplayName("스터디가 비공개이거나, 인원을 모집중이지 않거나, 종료되었으면 가입이 불가능함.")
     @Test
-    void isJoinable_false_for_manager(){
+    void canJoin_false(){
         study.setPublished(true);
-        study.setRecruiting(true);
-        study.addManager(account);
-
-        assertFalse(study.isJoinable(userAccount));
-    }
+        study.setRecruiting(false);
+        assertFalse(study.canJoin());
 
-    @DisplayName("스터디가 공개 상태이고, 인원도 모집 중이지만 이미 스터디의 멤버인 경우에는 가입이 불가능함.")
-    @Test
-    void isJoinable_false_for_member(){
-        study.setPublished(true);
+        study.setPublished(false);
         study.setRecruiting(true);
-        study.addMember(account);
+        assertFalse(study.canJoin());
 
-        assertFalse(study.isJoinable(userAccount));
+        study.setPublished(true);
+        study.setClosed(true);
+        assertFalse(study.canJoin());
     }
 
-    @DisplayName("스터디가 비공개이거나, 인원을 모집중이지 않으면 참여가 불가능함.")
+    @DisplayName("종료된 스터디는 탈퇴할 수 없음.")
     @Test
-    void isJoinable_false_for_non_recruiting_study(){
-        study.setPublished(true);
-        study.setRecruiting(false);
-        assertFalse(study.isJoinable(userAccount));
+    void canLeave(){
+        assertTrue(study.canLeave());
 
-        study.setPublished(false);
-        study.setRecruiting(true);
-        assertFalse(study.isJoinable(userAccount));
+        study.setClosed(true);
+        assertFalse(study.canLeave());
     }
 
     @DisplayName("스터디 관리자인지 확인.")
@@ -71,11 +65,4 @@ class StudyTest {
         study.addManager(account);
         assertTrue(study.isManager(userAccount));
     }
-
-    @DisplayName("스터디 멤버인지 확인.")
-    @Test
-    void isMember(){
-        study.addMember(account);
-        assertTrue(study.isMember(userAccount));
-    }
-}
\ No newline at end of file
+}
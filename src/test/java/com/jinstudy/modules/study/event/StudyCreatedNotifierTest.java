@@ -0,0 +1,142 @@
+package com.jinstudy.modules.study.event;
+
+import com.jinstudy.modules.account.Account;
+import com.jinstudy.modules.account.AccountRepository;
+import com.jinstudy.modules.study.Study;
+import com.jinstudy.modules.study.StudyRepository;
+import com.jinstudy.modules.tag.Tag;
+import com.jinstudy.modules.tag.TagRepository;
+import com.jinstudy.modules.zone.Zone;
+import com.jinstudy.modules.zone.ZoneRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 페이지마다 트랜잭션을 따로 커밋하기 때문에 @Transactional 테스트가 아니다. -> 만든 데이터는 테스트가 끝나면 직접 지워준다.
+@SpringBootTest
+class StudyCreatedNotifierTest {
+
+    private static final int SUBSCRIBERS = StudyCreatedNotifier.PAGE_SIZE + 5; // 두 페이지
+
+    @Autowired StudyCreatedNotifier studyCreatedNotifier;
+    @Autowired AccountRepository accountRepository;
+    @Autowired StudyRepository studyRepository;
+    @Autowired TagRepository tagRepository;
+    @Autowired ZoneRepository zoneRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    private final String prefix = "notify-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+    private Tag tag;
+    private Zone zone;
+    private Zone otherZone;
+    private Study study;
+
+    @BeforeEach
+    void beforeEach() {
+        tag = tagRepository.save(Tag.builder().title(prefix + "tag").build());
+        zone = zoneRepository.save(Zone.builder().city(prefix + "city").localNameOfCity("도시").province("도").build());
+        otherZone = zoneRepository.save(Zone.builder().city(prefix + "other").localNameOfCity("다른 도시").province("도").build());
+
+        List<Account> accounts = new ArrayList<>();
+        for(int i = 0; i < SUBSCRIBERS; i++){
+            Account account = account("web-" + i, zone);
+            account.setStudyCreatedByEmail(i % 2 == 0);
+            account.setEmailVerified(i % 4 != 0); // 인증하지 않은 이메일로는 보내지 않는다.
+            accounts.add(account);
+        }
+        accounts.add(account("other-zone", otherZone)); // 지역이 겹치지 않는다.
+        Account noWeb = account("no-web", zone);
+        noWeb.setStudyCreatedByWeb(false);
+        accounts.add(noWeb); // 받는 알림이 없다.
+        accountRepository.saveAll(accounts);
+
+        Study newStudy = new Study();
+        newStudy.setPath(prefix + "study");
+        newStudy.setTitle("새 스터디");
+        newStudy.setShortDescription("짧은 소개");
+        newStudy.getTags().add(tag);
+        newStudy.getZones().add(zone);
+        study = studyRepository.save(newStudy);
+    }
+
+    @AfterEach
+    void afterEach() {
+        String emails = prefix + "%";
+        jdbcTemplate.update("delete from notification where account_id in (select id from account where email like ?)", emails);
+        jdbcTemplate.update("delete from outbound_mail where recipient like ?", emails);
+        studyRepository.delete(study);
+        transactionTemplate.executeWithoutResult(status -> accountRepository.deleteAll(findAccounts()));
+        tagRepository.delete(tag);
+        zoneRepository.deleteAll(List.of(zone, otherZone));
+    }
+
+    @DisplayName("관심 주제와 활동 지역이 겹치는 계정에게 페이지 단위로 웹 알림과 메일을 보낸다")
+    @Test
+    void notify_matching_accounts() {
+        int notified = studyCreatedNotifier.notify(study.getId());
+
+        assertEquals(SUBSCRIBERS + 1, notified); // no-web 도 대상이지만 받을 알림이 없다.
+        assertEquals(SUBSCRIBERS, count("select count(*) from notification n join account a on a.id = n.account_id " +
+                "where a.email like ? and n.notification_type = 'STUDY_CREATED' and n.checked = false", prefix + "web-%"));
+        assertEquals(0, count("select count(*) from notification n join account a on a.id = n.account_id where a.email like ?",
+                prefix + "other-zone%"));
+        assertEquals(SUBSCRIBERS / 4 + (SUBSCRIBERS % 4 > 2 ? 1 : 0),
+                count("select count(*) from outbound_mail where recipient like ?", prefix + "%"));
+
+        String message = jdbcTemplate.queryForObject("select message from outbound_mail where recipient = ?", String.class,
+                prefix + "web-2@email.com");
+        assertTrue(message.contains(prefix + "web-2"));
+        assertTrue(message.contains("/study/" + study.getEncodedPath(study.getPath())));
+    }
+
+    @DisplayName("다시 보내면 이미 커밋된 페이지의 계정은 건너뛰고 이어서 보낸다")
+    @Test
+    void notify_resumes_after_committed_page() {
+        Long firstPageLastId = accountRepository.findStudyCreatedSubscribers(
+                Set.of(tag.getId()), Set.of(zone.getId()), 0, StudyCreatedNotifier.PAGE_SIZE)
+                .get(StudyCreatedNotifier.PAGE_SIZE - 1).getId();
+        transactionTemplate.executeWithoutResult(status ->
+                studyRepository.updateNotifiedAccountId(study.getId(), firstPageLastId)); // 첫 페이지를 넣고 실패한 것처럼
+
+        assertEquals(SUBSCRIBERS + 1 - StudyCreatedNotifier.PAGE_SIZE, studyCreatedNotifier.notify(study.getId()));
+        assertEquals(0, studyCreatedNotifier.notify(study.getId())); // 다 보낸 뒤에 다시 받아도 더 보내지 않는다.
+        assertEquals(SUBSCRIBERS - StudyCreatedNotifier.PAGE_SIZE, count("select count(*) from notification n join account a on a.id = n.account_id " +
+                "where a.email like ? and n.notification_type = 'STUDY_CREATED'", prefix + "web-%"));
+    }
+
+    private Account account(String name, Zone zone) {
+        Account account = new Account();
+        account.setNickname(prefix + name);
+        account.setEmail(prefix + name + "@email.com");
+        account.getTags().add(tag);
+        account.getZones().add(zone);
+        return account;
+    }
+
+    private List<Account> findAccounts() {
+        List<Account> accounts = new ArrayList<>();
+        accountRepository.findAll().forEach(account -> {
+            if(account.getEmail().startsWith(prefix)){
+                accounts.add(account);
+            }
+        });
+        return accounts;
+    }
+
+    private int count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+}
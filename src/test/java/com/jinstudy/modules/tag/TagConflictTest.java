@@ -0,0 +1,80 @@
+package com.jinstudy.modules.tag;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jinstudy.modules.account.Account;
+import com.jinstudy.modules.account.AccountRepository;
+import com.jinstudy.modules.account.WithAccount;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 요청이 open-session-in-view 의 EntityManager 로 처리되어야 하기 때문에 @Transactional 테스트(@MockMvcTest)가 아니다.
+// -> 만든 계정과 태그는 테스트가 끝나면 직접 지워준다.
+@SpringBootTest
+@AutoConfigureMockMvc
+class TagConflictTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired AccountRepository accountRepository;
+    @Autowired TagRepository tagRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+    @SpyBean TagInserter tagInserter;
+
+    private final String title = "conflict-" + UUID.randomUUID();
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> accountRepository.delete(accountRepository.findByNickname("jjinse")));
+        Tag tag = tagRepository.findByTitle(title);
+        if(tag != null){
+            tagRepository.delete(tag);
+        }
+    }
+
+    @WithAccount("jjinse")
+    @DisplayName("다른 요청이 같은 태그를 먼저 넣어서 insert 가 실패해도 요청에서 읽어둔 계정에 태그가 추가된다")
+    @Test
+    void addTag_when_insert_conflicts() throws Exception {
+        doAnswer(invocation -> {
+            // 다른 요청이 같은 태그를 먼저 넣고 커밋한 것처럼 다른 스레드(커넥션)에서 넣고, 이 insert 는 unique 제약 조건 위반으로 실패시킨다.
+            CompletableFuture.runAsync(() -> tagRepository.save(Tag.builder().title(title).build())).get();
+            throw new DuplicateKeyException("tag " + title);
+        }).when(tagInserter).batchInsert(anyCollection());
+
+        TagForm tagForm = new TagForm();
+        tagForm.setTagTitle(title);
+        mockMvc.perform(post("/settings/tags/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tagForm))
+                .with(csrf()))
+                .andExpect(status().isOk());
+
+        verify(tagInserter, times(1)).batchInsert(anyCollection()); // 실패한 뒤에는 다시 읽어서 찾는다.
+        Set<String> titles = transactionTemplate.execute(status -> {
+            Account jjinse = accountRepository.findByNickname("jjinse");
+            return jjinse.getTags().stream().map(Tag::getTitle).collect(Collectors.toSet());
+        });
+        assertEquals(Set.of(title), titles);
+    }
+}
@@ -0,0 +1,36 @@
+package com.jinstudy.modules.tag;
+
+import com.jinstudy.infra.MockMvcTest;
+import com.jinstudy.modules.account.WithAccount;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@MockMvcTest
+class TagControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired TagDictionary tagDictionary;
+
+    @WithAccount("jjinse")
+    @DisplayName("태그 자동완성 - 접두어로 시작하는 태그 이름 목록(JSON)")
+    @Test
+    void suggest() throws Exception {
+        for(int i = 0; i < TagController.MAX_SUGGESTIONS + 5; i++){
+            tagDictionary.put("suggest-test-" + i); // 테스트 트랜잭션은 커밋되지 않아서 add 로는 추가되지 않는다.
+        }
+
+        mockMvc.perform(get("/tags/suggest").param("prefix", "SUGGEST-test-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(6))) // 1, 10 ~ 14
+                .andExpect(jsonPath("$[0]", is("suggest-test-1")));
+
+        mockMvc.perform(get("/tags/suggest").param("prefix", "suggest-test-"))
+                .andExpect(jsonPath("$", hasSize(TagController.MAX_SUGGESTIONS)));
+    }
+}
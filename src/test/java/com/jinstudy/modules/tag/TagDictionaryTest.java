@@ -0,0 +1,43 @@
+package com.jinstudy.modules.tag;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TagDictionaryTest {
+
+    TagDictionary tagDictionary;
+
+    @BeforeEach
+    void beforeEach() {
+        TagRepository tagRepository = mock(TagRepository.class);
+        when(tagRepository.findAllTitles()).thenReturn(List.of("spring", "Spring Boot", "spring-data", "jpa", "Java", "java", "스프링", "스프링부트"));
+        tagDictionary = new TagDictionary(tagRepository);
+        tagDictionary.run(null);
+    }
+
+    @DisplayName("대소문자 구분 없이 접두어로 시작하는 태그만 이름 순서로")
+    @Test
+    void suggest() {
+        assertEquals(List.of("spring", "Spring Boot", "spring-data"), tagDictionary.suggest("SPR", 10));
+        assertEquals(List.of("Java", "java"), tagDictionary.suggest("ja", 10)); // 대소문자만 다른 태그도 모두
+        assertEquals(List.of("스프링", "스프링부트"), tagDictionary.suggest("스프", 10));
+        assertTrue(tagDictionary.suggest("python", 10).isEmpty());
+        assertTrue(tagDictionary.suggest(" ", 10).isEmpty());
+    }
+
+    @DisplayName("최대 limit 개, 새로 만든 태그 추가")
+    @Test
+    void suggest_limit_and_add() {
+        assertEquals(2, tagDictionary.suggest("spring", 2).size());
+
+        tagDictionary.add("springfox"); // 트랜잭션 밖에서는 바로 추가
+        assertEquals(List.of("spring", "Spring Boot", "spring-data", "springfox"), tagDictionary.suggest("spring", 10));
+    }
+}
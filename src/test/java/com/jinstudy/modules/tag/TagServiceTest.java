@@ -0,0 +1,79 @@
+package com.jinstudy.modules.tag;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 여러 스레드에서 동시에 태그를 만들어야 하기 때문에 @Transactional 테스트가 아니다. -> 만든 태그는 테스트가 끝나면 직접 지워준다.
+// 태그 이름 -> id 캐시는 테스트끼리 공유하기 때문에 테스트마다 다른 이름을 쓴다.
+@SpringBootTest
+class TagServiceTest {
+
+    private static final int TITLES = 20;
+    private static final int REQUESTS = 200;
+    private static final int THREADS = 16;
+
+    @Autowired TagService tagService;
+    @Autowired TagRepository tagRepository;
+
+    private final String prefix = "tag-" + UUID.randomUUID() + "-";
+    private final List<String> titles = IntStream.range(0, TITLES).mapToObj(i -> prefix + i).collect(Collectors.toList());
+
+    @AfterEach
+    void afterEach() {
+        tagRepository.deleteAll(tagRepository.findByTitleIn(titles));
+    }
+
+    @DisplayName("여러 태그를 한 번에 - 있는 태그는 그대로, 없는 태그만 만들고, 넘겨준 순서대로")
+    @Test
+    void findOrCreateNew_batch() {
+        Tag existing = tagService.findOrCreateNew(titles.get(3));
+
+        List<String> request = List.of(titles.get(5), titles.get(3), titles.get(1), titles.get(5));
+        Map<String, Tag> tags = tagService.findOrCreateNew(request);
+
+        assertEquals(List.of(titles.get(5), titles.get(3), titles.get(1)), new ArrayList<>(tags.keySet()));
+        assertEquals(existing.getId(), tags.get(titles.get(3)).getId());
+        assertEquals(3, tagRepository.findByTitleIn(request).size());
+
+        // 두 번째부터는 캐시에 있는 id 로 돌려준다.
+        assertEquals(tags.get(titles.get(1)).getId(), tagService.findOrCreateNew(titles.get(1)).getId());
+    }
+
+    @DisplayName("같은 새 태그들을 여러 스레드에서 동시에 만들어도 실패하지 않고 태그는 하나씩만 만들어진다")
+    @Test
+    void concurrent_findOrCreateNew() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Map<String, Long>>> results = new ArrayList<>();
+        for(int i = 0; i < REQUESTS; i++){
+            List<String> request = new ArrayList<>(titles);
+            Collections.shuffle(request, new Random(i)); // 요청마다 다른 순서로
+            results.add(executor.submit(() -> {
+                start.await();
+                Map<String, Long> ids = new HashMap<>();
+                tagService.findOrCreateNew(request).forEach((title, tag) -> ids.put(title, tag.getId()));
+                return ids;
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        List<Tag> saved = tagRepository.findByTitleIn(titles);
+        assertEquals(TITLES, saved.size());
+        Map<String, Long> savedIds = saved.stream().collect(Collectors.toMap(Tag::getTitle, Tag::getId));
+        for(Future<Map<String, Long>> result : results){
+            assertEquals(savedIds, result.get()); // 실패한 요청이 있으면 ExecutionException
+        }
+    }
+}
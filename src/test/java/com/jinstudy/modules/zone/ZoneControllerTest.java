@@ -0,0 +1,48 @@
+package com.jinstudy.modules.zone;
+
+import com.jinstudy.infra.MockMvcTest;
+import com.jinstudy.modules.account.WithAccount;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@MockMvcTest
+class ZoneControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ZoneService zoneService;
+
+    @WithAccount("jjinse")
+    @DisplayName("지역 whitelist - 미리 직렬화한 전체 지역 이름 목록")
+    @Test
+    void whitelist() throws Exception {
+        ZoneCatalog catalog = zoneService.getCatalog();
+
+        mockMvc.perform(get("/zones/whitelist"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Cache-Control", containsString("max-age")))
+                .andExpect(jsonPath("$", hasSize(catalog.size())))
+                .andExpect(jsonPath("$", hasItem("Seoul(서울특별시)/none")));
+    }
+
+    @DisplayName("ZoneCatalog - 이름, id, 도시와 도 이름으로 찾기")
+    @Test
+    void catalog_lookup() {
+        ZoneCatalog catalog = zoneService.getCatalog();
+
+        Zone seoul = catalog.getZone("Seoul(서울특별시)/none");
+        assertNotNull(seoul);
+        assertEquals(seoul, catalog.getZone(seoul.getId()));
+        assertEquals(seoul, catalog.getZone("Seoul", "none"));
+        assertNull(catalog.getZone("Seoul(서울)/none")); // 이름이 정확히 같아야 한다.
+        assertNull(catalog.getZone((String) null));
+    }
+}
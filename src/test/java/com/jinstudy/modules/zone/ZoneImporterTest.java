@@ -0,0 +1,92 @@
+package com.jinstudy.modules.zone;
+
+import com.jinstudy.infra.MockMvcTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MockMvcTest
+class ZoneImporterTest {
+
+    @Autowired ZoneImporter zoneImporter;
+    @Autowired ZoneRepository zoneRepository;
+
+    @DisplayName("classpath 의 지역 파일 - 이미 들어있는 지역은 다시 넣지 않는다")
+    @Test
+    void import_classpath_zones_again() throws Exception {
+        long count = zoneRepository.count();
+
+        ZoneImportResult result = zoneImporter.importZones(new ClassPathResource("zonelist_kr.csv"));
+
+        assertTrue(result.getRead() > 0);
+        assertEquals(0, result.getInserted());
+        assertEquals(0, result.getUpdated());
+        assertEquals(count, zoneRepository.count());
+    }
+
+    @DisplayName("새 지역은 넣고, 있는 지역은 한글 이름만 고치고, 형식에 맞지 않는 줄은 건너뛴다")
+    @Test
+    void upsert_zones() throws Exception {
+        String csv = "\uFEFFTestCity,테스트시,TestProvince\n" +
+                "NoProvince,도없는시\n" +
+                "NoProvince,도없는시,\n" + // 같은 지역이 또 나와도 한 번만 들어간다.
+                "\n" +
+                "broken line\n" +
+                "Seoul,서울시,none\n"; // 이미 있는 지역 (서울특별시)
+
+        ZoneImportResult result = zoneImporter.importZones(csv("zones.csv", csv));
+
+        assertEquals(5, result.getRead());
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getSkipped());
+
+        List<Zone> zones = zoneRepository.findAll();
+        Zone testCity = zones.stream().filter(zone -> zone.getCity().equals("TestCity")).findFirst().orElseThrow();
+        assertEquals("테스트시", testCity.getLocalNameOfCity());
+        assertEquals("TestProvince", testCity.getProvince());
+        Zone noProvince = zones.stream().filter(zone -> zone.getCity().equals("NoProvince")).findFirst().orElseThrow();
+        assertNull(noProvince.getProvince());
+        assertEquals(1, zones.stream().filter(zone -> zone.getCity().equals("NoProvince")).count());
+        Zone seoul = zones.stream().filter(zone -> zone.getCity().equals("Seoul")).findFirst().orElseThrow();
+        assertEquals("서울시", seoul.getLocalNameOfCity());
+    }
+
+    @DisplayName("여러 batch 에 걸친 큰 파일 - 모든 지역이 서로 다른 id 로 들어간다")
+    @Test
+    void import_large_file() throws Exception {
+        int size = ZoneImporter.BATCH_SIZE * 3 + 7;
+        StringBuilder csv = new StringBuilder();
+        for(int i = 0; i < size; i++){
+            csv.append("City").append(i).append(",도시").append(i).append(",Province").append(i % 17).append('\n');
+        }
+        long count = zoneRepository.count();
+
+        ZoneImportResult result = zoneImporter.importZones(csv("large.csv", csv.toString()));
+
+        assertEquals(size, result.getRead());
+        assertEquals(size, result.getInserted());
+        List<Zone> zones = zoneRepository.findAll();
+        assertEquals(count + size, zones.size());
+        Set<Long> ids = new HashSet<>();
+        zones.forEach(zone -> ids.add(zone.getId()));
+        assertEquals(zones.size(), ids.size());
+
+        // JPA 로 저장하는 다른 엔티티와 같은 시퀀스를 쓰기 때문에 이후에 저장해도 id 가 겹치지 않는다.
+        Zone saved = zoneRepository.save(Zone.builder().city("After").localNameOfCity("다음시").province("none").build());
+        assertFalse(ids.contains(saved.getId()));
+    }
+
+    private ByteArrayResource csv(String name, String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8), name);
+    }
+}